@@ -0,0 +1,202 @@
+package org.example;
+
+import org.example.model.Book;
+import org.example.model.Rating;
+import org.example.model.User;
+import org.example.structures.graph.Graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Cálculo de todas las afinidades por valoraciones entre lectores: dos lectores son afines si han valorado
+ * al menos 3 libros en común con puntuaciones que difieren como mucho en 1.
+ * Las valoraciones de cada lector se convierten antes en un vector ordenado de ids densos de libro
+ * (int[]) con sus puntuaciones (byte[]), de modo que contar los libros en común de una pareja es una
+ * mezcla lineal de dos arrays. Las parejas pueden repartirse entre los hilos de un ForkJoinPool.
+ * Solo cuentan las valoraciones de libros que siguen en el catálogo.
+ */
+final class AffinityCalculator {
+    static final int MIN_LIBROS_COMUNES = 3;
+    static final int MAX_DIFERENCIA = 1;
+    private static final int FILAS_POR_TAREA = 16; // Filas de la matriz de parejas que procesa cada tarea hoja
+
+    private final List<User> lectores;
+    private final int[][] libros; // libros[i]: ids densos de los libros valorados por el lector i, ordenados
+    private final byte[][] puntuaciones; // puntuaciones[i][k]: puntuación del lector i al libro libros[i][k]
+
+    // Copia las valoraciones de los lectores: a partir de aquí el cálculo no lee el estado de la biblioteca
+    AffinityCalculator(List<User> lectores, Predicate<Book> enCatalogo) {
+        this.lectores = lectores;
+        this.libros = new int[lectores.size()][];
+        this.puntuaciones = new byte[lectores.size()][];
+        Map<String, Integer> idsLibro = new HashMap<>();
+        for (int i = 0; i < lectores.size(); i++) {
+            buildVector(i, lectores.get(i), idsLibro, enCatalogo);
+        }
+    }
+
+    private void buildVector(int i, User lector, Map<String, Integer> idsLibro, Predicate<Book> enCatalogo) {
+        // Se empaqueta (id de libro, posición) en un long para ordenar por id sin crear objetos
+        long[] claves = new long[lector.getLibrosValorados().size()];
+        int[] puntuacionesOriginales = new int[claves.length];
+        int n = 0;
+        for (Rating rating : lector.getLibrosValorados()) {
+            if (rating.getLibro() == null || !enCatalogo.test(rating.getLibro())) {
+                continue;
+            }
+            int idLibro = idsLibro.computeIfAbsent(rating.getLibro().getId(), k -> idsLibro.size());
+            claves[n] = ((long) idLibro << 32) | n;
+            puntuacionesOriginales[n] = rating.getPuntuacion();
+            n++;
+        }
+        Arrays.sort(claves, 0, n);
+
+        int[] ids = new int[n];
+        byte[] valores = new byte[n];
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            int idLibro = (int) (claves[k] >>> 32);
+            if (count > 0 && ids[count - 1] == idLibro) {
+                continue; // Valoración repetida del mismo libro: cuenta la primera
+            }
+            ids[count] = idLibro;
+            valores[count] = (byte) puntuacionesOriginales[(int) claves[k]];
+            count++;
+        }
+        libros[i] = Arrays.copyOf(ids, count);
+        puntuaciones[i] = Arrays.copyOf(valores, count);
+    }
+
+    /**
+     * Busca todas las parejas de lectores afines. El resultado es el mismo (y en el mismo orden, por filas)
+     * tanto en modo secuencial como en paralelo.
+     * @param paralelo si es true las parejas se reparten entre los hilos del ForkJoinPool común.
+     * @return los índices de lector de cada pareja, seguidos: (i0, j0, i1, j1, ...).
+     */
+    int[] findAffinePairs(boolean paralelo) {
+        int numTareas = (lectores.size() + FILAS_POR_TAREA - 1) / FILAS_POR_TAREA;
+        EdgeBuffer[] buffers = new EdgeBuffer[numTareas]; // Un buffer por tarea: los hilos no comparten nada
+        if (paralelo) {
+            ForkJoinPool.commonPool().invoke(new PairsTask(0, numTareas, buffers));
+        } else {
+            for (int tarea = 0; tarea < numTareas; tarea++) {
+                buffers[tarea] = computeRows(tarea);
+            }
+        }
+
+        int total = 0;
+        for (EdgeBuffer buffer : buffers) {
+            total += buffer.size;
+        }
+        int[] parejas = new int[total];
+        int pos = 0;
+        for (EdgeBuffer buffer : buffers) {
+            System.arraycopy(buffer.pairs, 0, parejas, pos, buffer.size);
+            pos += buffer.size;
+        }
+        return parejas;
+    }
+
+    /**
+     * Añade al grafo una arista por cada pareja de {@link #findAffinePairs}.
+     * @return el número de aristas añadidas.
+     */
+    int addEdges(Graph<User> graph, int[] parejas) {
+        int added = 0;
+        for (int k = 0; k < parejas.length; k += 2) {
+            if (graph.addEdge(lectores.get(parejas[k]), lectores.get(parejas[k + 1]))) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    // Parejas afines (i, j) con i en las filas de la tarea y j > i
+    private EdgeBuffer computeRows(int tarea) {
+        EdgeBuffer buffer = new EdgeBuffer();
+        int fin = Math.min(lectores.size(), (tarea + 1) * FILAS_POR_TAREA);
+        for (int i = tarea * FILAS_POR_TAREA; i < fin; i++) {
+            if (libros[i].length < MIN_LIBROS_COMUNES) {
+                continue;
+            }
+            for (int j = i + 1; j < lectores.size(); j++) {
+                if (libros[j].length >= MIN_LIBROS_COMUNES && isAffine(i, j)) {
+                    buffer.add(i, j);
+                }
+            }
+        }
+        return buffer;
+    }
+
+    // Mezcla lineal de los dos vectores ordenados, cortando en cuanto se alcanza el mínimo
+    private boolean isAffine(int a, int b) {
+        int[] librosA = libros[a];
+        int[] librosB = libros[b];
+        byte[] puntuacionesA = puntuaciones[a];
+        byte[] puntuacionesB = puntuaciones[b];
+        int x = 0;
+        int y = 0;
+        int comunes = 0;
+        while (x < librosA.length && y < librosB.length) {
+            if (librosA[x] < librosB[y]) {
+                x++;
+            } else if (librosA[x] > librosB[y]) {
+                y++;
+            } else {
+                if (Math.abs(puntuacionesA[x] - puntuacionesB[y]) <= MAX_DIFERENCIA && ++comunes >= MIN_LIBROS_COMUNES) {
+                    return true;
+                }
+                x++;
+                y++;
+            }
+        }
+        return false;
+    }
+
+    // Divide el rango de tareas por la mitad hasta llegar a una sola; el work-stealing del pool
+    // equilibra que las primeras filas tienen más parejas que las últimas
+    private final class PairsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde;
+        private final int hasta;
+        private final EdgeBuffer[] buffers;
+
+        PairsTask(int desde, int hasta, EdgeBuffer[] buffers) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.buffers = buffers;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= 1) {
+                if (desde < hasta) {
+                    buffers[desde] = computeRows(desde);
+                }
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new PairsTask(desde, mitad, buffers), new PairsTask(mitad, hasta, buffers));
+        }
+    }
+
+    // Parejas de índices de lector guardadas seguidas en un int[] que crece al doble
+    private static final class EdgeBuffer {
+        int[] pairs = new int[16];
+        int size;
+
+        void add(int i, int j) {
+            if (size + 2 > pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            }
+            pairs[size++] = i;
+            pairs[size++] = j;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta en un hilo de fondo (daemon) la tarea de mantenimiento de la red de afinidad, agrupando los eventos:
+ * cada evento aplaza la ejecución esperaMs (debounce), pero la tarea se lanza en cuanto se acumulan maxEventos
+ * o el primer evento pendiente supera maxEsperaMs, para que un flujo continuo de valoraciones no la retrase
+ * indefinidamente. La tarea procesa de una vez todo lo acumulado.
+ */
+final class AffinityMaintenanceWorker {
+    private final Runnable tarea;
+    private final long esperaMs;
+    private final long maxEsperaMs;
+    private final int maxEventos;
+    private final ScheduledExecutorService executor;
+
+    private ScheduledFuture<?> programada; // Ejecución pendiente, o null
+    private int eventos; // Eventos desde la última ejecución lanzada
+    private long primerEventoMs;
+
+    AffinityMaintenanceWorker(Runnable tarea, long esperaMs, long maxEsperaMs, int maxEventos) {
+        this.tarea = tarea;
+        this.esperaMs = esperaMs;
+        this.maxEsperaMs = maxEsperaMs;
+        this.maxEventos = maxEventos;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mantenimiento-afinidades");
+            thread.setDaemon(true); // No impide que la aplicación termine
+            return thread;
+        });
+    }
+
+    /**
+     * Registra un evento y (re)programa la tarea. Retorna enseguida: la tarea nunca se ejecuta en el hilo
+     * que llama.
+     */
+    synchronized void eventoRegistrado() {
+        long ahora = System.currentTimeMillis();
+        if (eventos == 0) {
+            primerEventoMs = ahora;
+        }
+        eventos++;
+        if (programada != null) {
+            programada.cancel(false); // Si ya había empezado, termina y esta nueva ejecución recoge lo que falte
+        }
+        long espera = (eventos >= maxEventos || ahora - primerEventoMs >= maxEsperaMs) ? 0 : esperaMs;
+        programada = executor.schedule(this::ejecutar, espera, TimeUnit.MILLISECONDS);
+    }
+
+    private void ejecutar() {
+        synchronized (this) {
+            programada = null;
+            eventos = 0;
+        }
+        try {
+            tarea.run();
+        } catch (RuntimeException e) {
+            // Una excepción no debe matar el hilo: los eventos siguientes volverán a lanzar la tarea
+            System.err.println("Error en el mantenimiento de afinidades: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
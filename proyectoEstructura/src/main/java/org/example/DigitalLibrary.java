@@ -1,1372 +1,1875 @@
-package org.example;
-
-import org.example.model.Book;
-import org.example.model.ChatMessage;
-import org.example.model.FriendRequest;
-import org.example.model.Loan;
-import org.example.model.LoanRequest;
-import org.example.model.User;
-import org.example.model.Rating;
-import org.example.model.enums.FriendRequestStatus;
-import org.example.model.enums.TipoUsuario;
-import org.example.structures.BinaryTree.BinaryTree;
-import org.example.structures.RedBlackTree.RedBlackTree;
-import org.example.structures.colaPrioridad.ColaPrioridad;
-import org.example.structures.colas.Cola;
-import org.example.structures.doubleList.DoubleList;
-import org.example.structures.graph.Graph;
-import org.example.structures.pilas.Pila;
-import org.example.model.FriendSuggestionDetail;
-
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.ArrayList;
-import java.util.List;
-
-public class DigitalLibrary implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private static final String DATA_FILE_PATH = "library_data.dat";
-
-    private RedBlackTree<Book> catalogoLibros;
-    private DoubleList<User> usuarios;
-    private DoubleList<Loan> prestamosActivos;
-    private ColaPrioridad<LoanRequest> waitlist;
-    private Graph<User> redAfinidad;
-
-    // Nuevos atributos para el Chat
-    private Map<String, DoubleList<ChatMessage>> chatMessagesByRoom;
-    private DoubleList<String> chatRoomNames;
-
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-    public DigitalLibrary() {
-        this.catalogoLibros = new RedBlackTree<>();
-        this.usuarios = new DoubleList<>();
-        this.prestamosActivos = new DoubleList<>();
-        this.waitlist = new ColaPrioridad<>();
-        this.redAfinidad = new Graph<>();
-
-        this.chatMessagesByRoom = new HashMap<>();
-        this.chatRoomNames = new DoubleList<>();
-        
-        String generalRoom = "General";
-        if (!this.chatRoomNames.contains(generalRoom)) {
-            this.chatRoomNames.addLast(generalRoom);
-        }
-        this.chatMessagesByRoom.putIfAbsent(generalRoom, new DoubleList<>());
-    }
-
-    // --- Métodos de Persistencia ---
-    public void saveData(String filePath) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
-            oos.writeObject(this);
-            System.out.println("Datos de la biblioteca guardados en: " + filePath);
-        } catch (IOException e) {
-            System.err.println("Error al guardar los datos de la biblioteca: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    public static DigitalLibrary loadData(String filePath) {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
-            DigitalLibrary library = (DigitalLibrary) ois.readObject();
-            System.out.println("Datos de la biblioteca cargados desde: " + filePath);
-
-            // Asegurar inicialización de campos de chat después de la carga
-            if (library.chatMessagesByRoom == null) {
-                library.chatMessagesByRoom = new HashMap<>();
-            }
-            if (library.chatRoomNames == null) {
-                library.chatRoomNames = new DoubleList<>();
-            }
-            
-            String generalRoom = "General";
-            boolean generalExistsInNames = false;
-            if (library.chatRoomNames != null) { // Comprobar nulidad antes de iterar
-                for(int i = 0; i < library.chatRoomNames.size(); i++){
-                    if(library.chatRoomNames.get(i).equalsIgnoreCase(generalRoom)){
-                        generalExistsInNames = true;
-                        break;
-                    }
-                }
-            }
-            if (!generalExistsInNames) {
-                 if (library.chatRoomNames == null) library.chatRoomNames = new DoubleList<>(); // Asegurar que no sea null
-                 library.chatRoomNames.addLast(generalRoom);
-            }
-            library.chatMessagesByRoom.putIfAbsent(generalRoom, new DoubleList<>());
-
-            // **NUEVO: Asegurar inicialización de listas de FriendRequest en Users después de la carga**
-            if (library.usuarios != null) {
-                for (int i = 0; i < library.usuarios.size(); i++) {
-                    User user = library.usuarios.get(i);
-                    if (user != null) {
-             
-                        user.initializeFriendRequestLists(); // Llamamos al método que hemos añadido a User
-                    }
-                }
-            }
-
-
-            return library;
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error al cargar los datos de la biblioteca: " + e.getMessage());
-            System.out.println("Creando una nueva instancia de DigitalLibrary debido a error de carga.");
-            return new DigitalLibrary(); 
-        }
-    }
-
-    // --- Métodos del Chat ---
-    public synchronized void sendChatMessage(String roomName, ChatMessage message) {
-        if (message == null || roomName == null || roomName.trim().isEmpty()) {
-            System.err.println("Error: Mensaje o nombre de sala inválido.");
-            return;
-        }
-        String normalizedRoomName = roomName.trim(); 
-        ChatMessage messageForRoom = new ChatMessage(message.getSenderUsername(), normalizedRoomName, message.getContent());
-
-        chatMessagesByRoom.putIfAbsent(normalizedRoomName, new DoubleList<>());
-        // Añadir a la lista de nombres de salas si es realmente nueva y no solo un caso diferente
-        boolean existsInKnownNames = false;
-        for(int i=0; i < this.chatRoomNames.size(); i++){
-            if(this.chatRoomNames.get(i).equalsIgnoreCase(normalizedRoomName)){
-                existsInKnownNames = true;
-                break;
-            }
-        }
-        if(!existsInKnownNames){
-            this.chatRoomNames.addLast(normalizedRoomName); 
-        }
-
-        DoubleList<ChatMessage> messages = chatMessagesByRoom.get(normalizedRoomName);
-        messages.addLast(messageForRoom); // Ahora messages no debería ser null
-        System.out.println("Mensaje enviado a la sala '" + normalizedRoomName + "' por '" + message.getSenderUsername() + "'");
-    }
-
-    public DoubleList<ChatMessage> getChatMessages(String roomName) {
-        if (roomName == null) return new DoubleList<>();
-        return chatMessagesByRoom.getOrDefault(roomName.trim(), new DoubleList<>());
-    }
-
-    public DoubleList<String> getChatRoomNames() {
-        // Construye una lista actualizada de salas para la GUI
-        DoubleList<String> currentDisplayableRooms = new DoubleList<>();
-        currentDisplayableRooms.addLast("General"); // "General" siempre primero
-
-        if (catalogoLibros != null) {
-            DoubleList<Book> allBooks = catalogoLibros.inOrderTraversal();
-            for (int i = 0; i < allBooks.size(); i++) {
-                Book book = allBooks.get(i);
-                if (book != null && book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
-                    String category = book.getCategoria().trim();
-                    String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
-
-                    if (!formattedCategory.equalsIgnoreCase("General")) {
-                        boolean exists = false;
-                        for(int j=0; j < currentDisplayableRooms.size(); j++){
-                            if(currentDisplayableRooms.get(j).equalsIgnoreCase(formattedCategory)){
-                                exists = true;
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            currentDisplayableRooms.addLast(formattedCategory);
-                        }
-                    }
-                }
-            }
-        }
-        // Sincronizar la lista `this.chatRoomNames` (la que se persiste) 
-        // con las salas actualmente mostrables y asegurar que todas tengan una entrada en chatMessagesByRoom.
-        // Esto es importante para la consistencia si se cargan datos o se añaden/eliminan libros.
-        
-        DoubleList<String> finalRoomNames = new DoubleList<>();
-        // Añadir todas las de currentDisplayableRooms a finalRoomNames y a this.chatMessagesByRoom
-        for (int i = 0; i < currentDisplayableRooms.size(); i++) {
-            String room = currentDisplayableRooms.get(i);
-            finalRoomNames.addLast(room);
-            this.chatMessagesByRoom.putIfAbsent(room, new DoubleList<>());
-        }
-
-        this.chatRoomNames.clear();
-        for(int i=0; i < currentDisplayableRooms.size(); i++){
-            this.chatRoomNames.addLast(currentDisplayableRooms.get(i));
-            this.chatMessagesByRoom.putIfAbsent(currentDisplayableRooms.get(i), new DoubleList<>()); // Asegurar que exista en el map
-        }
-        return this.chatRoomNames;
-    }
-
-    // --- Gestión de Libros ---
-    public void addBook(Book book) {
-        if (book != null) {
-            catalogoLibros.insert(book);
-            if (book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
-                String category = book.getCategoria().trim();
-                String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
-                
-                chatMessagesByRoom.putIfAbsent(formattedCategory, new DoubleList<>());
-                // Actualizar chatRoomNames si esta categoría es nueva
-                boolean existsInKnownNames = false;
-                for(int i=0; i < this.chatRoomNames.size(); i++){
-                    if(this.chatRoomNames.get(i).equalsIgnoreCase(formattedCategory)){
-                        existsInKnownNames = true;
-                        break;
-                    }
-                }
-                if(!existsInKnownNames){
-                    this.chatRoomNames.addLast(formattedCategory);
-                }
-            }
-        }
-    }
-
-    public Book findBookByTitle(String title) {
-        DoubleList<Book> todosLosLibros = catalogoLibros.inOrderTraversal();
-        for (int i = 0; i < todosLosLibros.size(); i++) {
-            Book libro = todosLosLibros.get(i);
-            if (libro.getTitulo().equalsIgnoreCase(title) && libro.isAvailable()) {
-                return libro;
-            }
-        }
-        return null;
-    }
-    
-    public Book findBookById(String bookId) {
-        DoubleList<Book> todosLosLibros = catalogoLibros.inOrderTraversal();
-        for (int i = 0; i < todosLosLibros.size(); i++) {
-            Book libro = todosLosLibros.get(i);
-            if (libro.getId().equals(bookId) && libro.isAvailable()) {
-                return libro;
-            }
-        }
-        return null;
-    }
-
-    // --- Gestión de Usuarios ---
-    public void registerUser(User user) {
-        if (user != null && findUserByUsername(user.getUsername()) == null) {
-            usuarios.addLast(user);
-            redAfinidad.addVertex(user);
-        }
-    }
-
-    public User findUserByUsername(String username) {
-        for (int i = 0; i < usuarios.size(); i++) {
-            User u = usuarios.get(i);
-            if (u.getUsername().equals(username)) {
-                return u;
-            }
-        }
-        return null;
-    }
-    
-    public User login(String username, String password) {
-        User user = findUserByUsername(username);
-        if (user != null && user.getPassword().equals(password)) {
-            return user;
-        }
-        return null;
-    }
-
-    // --- Gestión de Préstamos ---
-    public synchronized String requestLoan(String username, String bookId) {
-        User user = findUserByUsername(username);
-        Book book = findBookById(bookId);
-
-        if (user == null) {
-            return "Usuario no encontrado.";
-        }
-        if (book == null) {
-            return "Libro no encontrado o no disponible.";
-        }
-        if (!book.isAvailable()) {
-            return "El libro '" + book.getTitulo() + "' no está disponible actualmente.";
-        }
-
-        for (int i = 0; i < prestamosActivos.size(); i++) {
-            Loan activeLoan = prestamosActivos.get(i);
-            if (activeLoan.getUsuario().equals(user) && activeLoan.getLibro().equals(book)) {
-                return "Ya tienes este libro prestado.";
-            }
-        }
-        
-        if (book.hayEjemplaresDisponibles()) {
-            book.prestarEjemplar(); 
-            LocalDate fechaSolicitud = LocalDate.now();
-            LocalDate fechaDevolucionPrevista = fechaSolicitud.plusWeeks(2);
-            Loan newLoan = new Loan(user, book, fechaSolicitud.format(DATE_FORMATTER), fechaDevolucionPrevista.format(DATE_FORMATTER));
-            prestamosActivos.addLast(newLoan);
-            return "Préstamo exitoso para el libro: " + book.getTitulo();
-        } else {
-            LoanRequest request = new LoanRequest(user, book);
-            waitlist.add(request);
-            
-            // Buscar la fecha de devolución más próxima para este libro
-            String proximaDevolucionStr = "No hay información de próxima devolución.";
-            LocalDate proximaDevolucion = null;
-
-            for (int i = 0; i < prestamosActivos.size(); i++) {
-                Loan currentLoan = prestamosActivos.get(i);
-                if (currentLoan.getLibro().equals(book)) {
-                    try {
-                        LocalDate fechaDevPrev = LocalDate.parse(currentLoan.getFechaDevolucionPrevista(), DATE_FORMATTER);
-                        if (proximaDevolucion == null || fechaDevPrev.isBefore(proximaDevolucion)) {
-                            proximaDevolucion = fechaDevPrev;
-                        }
-                    } catch (Exception e) {
-                        // Ignorar si la fecha no se puede parsear, aunque no debería pasar
-                        System.err.println("Error parseando fecha de devolución prevista: " + currentLoan.getFechaDevolucionPrevista());
-                    }
-                }
-            }
-
-            if (proximaDevolucion != null) {
-                proximaDevolucionStr = "Se espera un ejemplar para el: " + proximaDevolucion.format(DATE_FORMATTER) + ".";
-            }
-
-            return "Libro '" + book.getTitulo() + "' no disponible. Añadido a lista de espera. " + proximaDevolucionStr;
-        }
-    }
-
-    public synchronized String returnLoan(String username, String bookId) {
-        User user = findUserByUsername(username);
-        Book book = findBookById(bookId);
-
-        if (user == null) {
-            return "Usuario no encontrado.";
-        }
-        if (book == null) {
-            return "Libro no encontrado o no disponible.";
-        }
-        if (!book.isAvailable()) {
-            return "El libro '" + book.getTitulo() + "' no está disponible actualmente.";
-        }
-
-        Loan loanToRemove = null;
-        int loanIndex = -1; 
-        for (int i = 0; i < prestamosActivos.size(); i++) {
-            Loan currentLoan = prestamosActivos.get(i);
-            if (currentLoan.getUsuario().equals(user) && currentLoan.getLibro().equals(book) && !currentLoan.isDevuelto()) { 
-                loanToRemove = currentLoan;
-                loanIndex = i;
-                break;
-            }
-        }
-
-        if (loanToRemove != null) {
-            if (loanIndex != -1) {
-                 prestamosActivos.removeAtIndex(loanIndex); 
-            } else {
-                // Esto no debería pasar si loanToRemove no es null y se encontró
-                return "Error interno: No se pudo determinar el índice del préstamo a remover.";
-            }
-            
-            // Marcar como devuelto y añadir al historial del usuario
-            loanToRemove.setDevuelto(true);
-            loanToRemove.setFechaDevolucionReal(LocalDate.now().format(DATE_FORMATTER)); // Registrar fecha de devolución real
-            user.getHistorialPrestamos().addLast(loanToRemove); // <-- AÑADIR ESTO
-            
-            book.devolverEjemplar(); 
-            updateAffinityNetwork(user, book); // Ahora el historial estará actualizado para esta lógica
-            processWaitlistForBook(book);
-            return "Libro '" + book.getTitulo() + "' devuelto exitosamente.";
-        } else {
-            return "No se encontró un préstamo activo para este usuario y libro.";
-        }
-    }
-
-    public synchronized String valorarLibro(String username, String bookId, int puntuacion, String comentario) {
-        User user = findUserByUsername(username);
-        if (user == null) {
-            return "Error: Usuario '" + username + "' no encontrado.";
-        }
-        if (user.getTipoUsuario() != TipoUsuario.LECTOR) {
-            return "Error: Solo los usuarios de tipo LECTOR pueden valorar libros.";
-        }
-
-        Book book = findBookById(bookId);
-        if (book == null || !book.isAvailable()) {
-            return "Error: Libro con ID '" + bookId + "' no encontrado o no disponible.";
-        }
-
-        // Verificar si el usuario ha prestado el libro alguna vez
-        boolean haPrestadoElLibro = false;
-        for (int i = 0; i < user.getHistorialPrestamos().size(); i++) {
-            Loan prestamo = user.getHistorialPrestamos().get(i);
-            if (prestamo.getLibro().getId().equals(bookId)) {
-                haPrestadoElLibro = true;
-                break;
-            }
-        }
-        if (!haPrestadoElLibro) {
-            return "Error: Debes haber tomado prestado el libro '" + book.getTitulo() + "' para poder valorarlo.";
-        }
-
-        Rating ratingExistente = null;
-        for (int i = 0; i < user.getLibrosValorados().size(); i++) {
-            Rating r = user.getLibrosValorados().get(i);
-            if (r.getLibro().getId().equals(bookId)) {
-                ratingExistente = r;
-                break;
-            }
-        }
-
-        String resultado;
-        if (ratingExistente != null) {
-            ratingExistente.setPuntuacion(puntuacion);
-            ratingExistente.setComentario(comentario);
-            ratingExistente.setFechaValoracion(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            resultado = "Has actualizado tu valoración para el libro '" + book.getTitulo() + "'.";
-        } else {
-            Rating nuevoRating = new Rating(user, book, puntuacion, comentario, LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            user.getLibrosValorados().addLast(nuevoRating);
-            book.getRatings().addLast(nuevoRating);
-            resultado = "Libro '" + book.getTitulo() + "' valorado exitosamente con " + puntuacion + " estrellas.";
-        }
-
-        book.recalculateCalificacionPromedio();
-        saveData(DATA_FILE_PATH);
-        recalculateAffinitiesBasedOnRatings();
-        return resultado;
-    }
-
-    public synchronized void processWaitlistForBook(Book book) {
-        if (book == null) return;
-
-        while (book.hayEjemplaresDisponibles() && !waitlist.isEmpty()) { 
-            LoanRequest nextRequest = waitlist.peek(); 
-
-            if (nextRequest != null && nextRequest.getBook().equals(book)) {
-                waitlist.poll(); 
-
-                book.prestarEjemplar(); 
-                LocalDate fechaSolicitud = LocalDate.now();
-                LocalDate fechaDevolucionPrevista = fechaSolicitud.plusWeeks(2);
-                Loan newLoan = new Loan(nextRequest.getUser(), nextRequest.getBook(), fechaSolicitud.format(DATE_FORMATTER), fechaDevolucionPrevista.format(DATE_FORMATTER));
-                prestamosActivos.addLast(newLoan);
-
-            } else if (nextRequest != null && !nextRequest.getBook().equals(book)) {
-                break; 
-            } else { 
-                break;
-            }
-        }
-    }
-
-    // --- Red de Afinidad ---
-    public void updateAffinityNetwork(User user1, Book commonBook) {
-        for (int i = 0; i < usuarios.size(); i++) {
-            User user2 = usuarios.get(i);
-            if (!user1.equals(user2)) {
-                DoubleList<Loan> historialUser2 = user2.getHistorialPrestamos();
-                if (historialUser2 != null) {
-                    for (int j = 0; j < historialUser2.size(); j++) {
-                        Loan prestamoUser2 = historialUser2.get(j);
-                        if (prestamoUser2.getLibro().equals(commonBook)) {
-                            redAfinidad.addEdge(user1, user2);
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    public DoubleList<User> getFriendSuggestions(String username) {
-        User user = findUserByUsername(username);
-        if (user == null) {
-            return new DoubleList<>();
-        }
-        DoubleList<User> neighborsList = redAfinidad.getNeighbors(user);
-        
-        return neighborsList;
-    }
-
-    public DoubleList<User> findShortestPathAffinity(String username1, String username2) {
-        User startUser = findUserByUsername(username1);
-        User endUser = findUserByUsername(username2);
-
-        if (startUser == null || endUser == null) {
-            return new DoubleList<>();
-        }
-
-        Cola<User> queue = new Cola<>();
-        Pila<User> pathStack = new Pila<>();
-        DoubleList<User> visited = new DoubleList<>();
-        Map<User, User> predecessors = new HashMap<>();
-
-        queue.enqueue(startUser);
-        visited.addLast(startUser);
-        predecessors.put(startUser, null);
-
-        boolean found = false;
-        while (!queue.isEmpty()) {
-            User currentUser = queue.dequeue();
-            if (currentUser.equals(endUser)) {
-                found = true;
-                break;
-            }
-
-            DoubleList<User> neighbors = redAfinidad.getNeighbors(currentUser);
-            if (neighbors != null && !neighbors.isEmpty()) {
-                for (int i = 0; i < neighbors.size(); i++) {
-                    User neighbor = neighbors.get(i);
-                    boolean alreadyVisited = false;
-                    for(int j=0; j < visited.size(); j++){
-                        if(visited.get(j).equals(neighbor)){
-                            alreadyVisited = true;
-                            break;
-                        }
-                    }
-                    if (!alreadyVisited) {
-                        visited.addLast(neighbor);
-                        queue.enqueue(neighbor);
-                        predecessors.put(neighbor, currentUser);
-                    }
-                }
-            }
-        }
-
-        DoubleList<User> shortestPath = new DoubleList<>();
-        if (found) {
-            User step = endUser;
-            while (step != null) {
-                pathStack.push(step);
-                step = predecessors.get(step);
-            }
-            while(!pathStack.isEmpty()){
-                shortestPath.addLast(pathStack.pop());
-            }
-        }
-        return shortestPath;
-    }
-
-    // --- Sistema de Recomendaciones ---
-    public DoubleList<Book> getBookRecommendations(String username) {
-        System.out.println("\n[DEBUG] getBookRecommendations para: " + username);
-        User user = findUserByUsername(username);
-        if (user == null) {
-            System.out.println("[DEBUG] Usuario no encontrado.");
-            return new DoubleList<>();
-        }
-
-        DoubleList<Book> recommendations = new DoubleList<>();
-        DoubleList<Rating> userRatings = user.getLibrosValorados();
-        DoubleList<Loan> userLoanHistory = user.getHistorialPrestamos();
-        
-        System.out.println("[DEBUG] Ratings del usuario (" + userRatings.size() + "): ");
-        for(int i=0; i<userRatings.size(); i++) { System.out.println("  - " + userRatings.get(i).getLibro().getTitulo() + " P:" + userRatings.get(i).getPuntuacion());}
-        System.out.println("[DEBUG] Historial de préstamos del usuario (" + userLoanHistory.size() + "): ");
-        for(int i=0; i<userLoanHistory.size(); i++) { System.out.println("  - " + userLoanHistory.get(i).getLibro().getTitulo());}
-
-        if (userRatings.isEmpty()) {
-            System.out.println("[DEBUG] No hay ratings, llamando a fallback.");
-            return getTopRatedBooksNotRatedByUserOrRead(user, 5);
-        }
-
-        DoubleList<String> favoriteCategories = new DoubleList<>();
-        DoubleList<String> favoriteAuthors = new DoubleList<>();
-
-        for (int i = 0; i < userRatings.size(); i++) {
-            Rating rating = userRatings.get(i);
-            if (rating.getPuntuacion() >= 3) { 
-                Book ratedBook = rating.getLibro();
-                if (ratedBook == null) continue;
-                System.out.println("[DEBUG] Libro bien valorado: " + ratedBook.getTitulo() + " (Cat: " + ratedBook.getCategoria() + ", Autor: " + ratedBook.getAutor() + ")");
-                
-                boolean catExists = false;
-                for(int j=0; j<favoriteCategories.size(); j++){
-                    if(favoriteCategories.get(j).equalsIgnoreCase(ratedBook.getCategoria())){ catExists = true; break; }
-                }
-                if(!catExists) favoriteCategories.addLast(ratedBook.getCategoria());
-
-                boolean authorExists = false;
-                for(int j=0; j<favoriteAuthors.size(); j++){
-                    if(favoriteAuthors.get(j).equalsIgnoreCase(ratedBook.getAutor())){ authorExists = true; break; }
-                }
-                if(!authorExists) favoriteAuthors.addLast(ratedBook.getAutor());
-            }
-        }
-        System.out.println("[DEBUG] Categorías favoritas: " + favoriteCategories.size()); // Idealmente mostrar contenido
-        for(int i=0; i<favoriteCategories.size(); i++) { System.out.println("  Cat: " + favoriteCategories.get(i)); }
-        System.out.println("[DEBUG] Autores favoritos: " + favoriteAuthors.size()); // Idealmente mostrar contenido
-        for(int i=0; i<favoriteAuthors.size(); i++) { System.out.println("  Aut: " + favoriteAuthors.get(i)); }
-
-        if (favoriteCategories.isEmpty() && favoriteAuthors.isEmpty()) {
-            System.out.println("[DEBUG] No hay categorías/autores favoritos, llamando a fallback.");
-            return getTopRatedBooksNotRatedByUserOrRead(user, 5);
-        }
-
-        DoubleList<Book> allBooks = catalogoLibros.inOrderTraversal();
-        System.out.println("[DEBUG] Procesando " + allBooks.size() + " libros del catálogo para recomendaciones.");
-        for (int i = 0; i < allBooks.size(); i++) {
-            Book potentialRecommendation = allBooks.get(i);
-            if (potentialRecommendation == null || !potentialRecommendation.isAvailable()) continue;
-            System.out.println("  [DEBUG] Considernado: " + potentialRecommendation.getTitulo());
-
-            boolean alreadyRecommended = false;
-            for(int k=0; k < recommendations.size(); k++){
-                if(recommendations.get(k).equals(potentialRecommendation)){ alreadyRecommended = true; break;}
-            }
-            if(alreadyRecommended) { System.out.println("    [DEBUG] Rechazado: Ya en esta lista de recomendación."); continue; }
-
-            boolean matchesCategory = false;
-            for(int j=0; j<favoriteCategories.size(); j++){
-                if(potentialRecommendation.getCategoria().equalsIgnoreCase(favoriteCategories.get(j))){
-                    matchesCategory = true; break;
-                }
-            }
-
-            boolean matchesAuthor = false;
-             for(int j=0; j<favoriteAuthors.size(); j++){
-                if(potentialRecommendation.getAutor().equalsIgnoreCase(favoriteAuthors.get(j))){
-                    matchesAuthor = true; break;
-                }
-            }
-
-            if (matchesCategory || matchesAuthor) {
-                System.out.println("    [DEBUG] ACEPTADO para recomendación: " + potentialRecommendation.getTitulo() + " (Match Cat: "+matchesCategory+", Match Aut: "+matchesAuthor+")");
-                recommendations.addLast(potentialRecommendation);
-            } else {
-                 System.out.println("    [DEBUG] Rechazado: No coincide categoría/autor favorito.");
-            }
-        }
-        
-        System.out.println("[DEBUG] Recomendaciones preliminares (" + recommendations.size() + ") antes de ordenar y limitar:");
-        for(int i=0; i<recommendations.size(); i++) { System.out.println("  - " + recommendations.get(i).getTitulo());}
-
-        if (!recommendations.isEmpty()) {
-            for (int i = 0; i < recommendations.size() - 1; i++) {
-                for (int j = 0; j < recommendations.size() - i - 1; j++) {
-                    if (recommendations.get(j).getCalificacionPromedio() < recommendations.get(j + 1).getCalificacionPromedio()) {
-                        Book temp = recommendations.get(j);
-                        recommendations.set(j, recommendations.get(j + 1)); 
-                        recommendations.set(j + 1, temp);
-                    }
-                }
-            }
-        }
-        
-        DoubleList<Book> finalRecommendations = new DoubleList<>();
-        for(int i=0; i < recommendations.size() && i < 5; i++){ 
-            finalRecommendations.addLast(recommendations.get(i));
-        }
-        System.out.println("[DEBUG] Recomendaciones finales (" + finalRecommendations.size() + "):");
-        for(int i=0; i<finalRecommendations.size(); i++) { System.out.println("  - " + finalRecommendations.get(i).getTitulo());}
-
-        if (finalRecommendations.isEmpty()){
-            System.out.println("[DEBUG] No hay recomendaciones personalizadas, llamando a fallback final.");
-            return getTopRatedBooksNotRatedByUserOrRead(user, 5);
-        }
-        return finalRecommendations;
-    }
-
-    // Método auxiliar modificado para obtener los N libros mejor valorados que el usuario NO HA VALORADO NI LEÍDO
-    private DoubleList<Book> getTopRatedBooksNotRatedByUserOrRead(User user, int count) {
-        System.out.println("[DEBUG] Entrando a getTopRatedBooksNotRatedByUserOrRead para user: " + user.getUsername());
-        DoubleList<Book> allBooks = catalogoLibros.inOrderTraversal();
-        DoubleList<Book> booksToExclude = new DoubleList<>();
-
-        // Añadir libros valorados a la lista de exclusión
-        for(int i=0; i < user.getLibrosValorados().size(); i++){
-            Book ratedBook = user.getLibrosValorados().get(i).getLibro();
-            if (ratedBook != null) {
-                boolean exists = false;
-                for(int k=0; k<booksToExclude.size(); k++){ if(booksToExclude.get(k).equals(ratedBook)) {exists=true; break;}}
-                if(!exists) booksToExclude.addLast(ratedBook);
-            }
-        }
-        // Añadir libros del historial de préstamos a la lista de exclusión
-        for(int i=0; i < user.getHistorialPrestamos().size(); i++){
-            Book loanedBook = user.getHistorialPrestamos().get(i).getLibro();
-            if (loanedBook != null) {
-                boolean exists = false;
-                for(int k=0; k<booksToExclude.size(); k++){ if(booksToExclude.get(k).equals(loanedBook)) {exists=true; break;}}
-                if(!exists) booksToExclude.addLast(loanedBook);
-            }
-        }
-
-        DoubleList<Book> candidateBooks = new DoubleList<>();
-        for(int i=0; i < allBooks.size(); i++){
-            Book currentBook = allBooks.get(i);
-            if (currentBook == null || !currentBook.isAvailable()) continue;
-            boolean exclude = false;
-            if(booksToExclude.contains(currentBook)){
-                 exclude = true;
-            }
-            if(!exclude) {
-                candidateBooks.addLast(currentBook);
-            }
-        }
-
-        if (!candidateBooks.isEmpty()) {
-            for (int i = 0; i < candidateBooks.size() - 1; i++) {
-                for (int j = 0; j < candidateBooks.size() - i - 1; j++) {
-                    if (candidateBooks.get(j).getCalificacionPromedio() < candidateBooks.get(j + 1).getCalificacionPromedio()) {
-                        Book temp = candidateBooks.get(j);
-                        candidateBooks.set(j, candidateBooks.get(j + 1));
-                        candidateBooks.set(j + 1, temp);
-                    }
-                }
-            }
-        }
-        
-        System.out.println("[DEBUG] Fallback - libros candidatos (" + candidateBooks.size() + ") antes de top " + count + ":");
-        for(int i=0; i<candidateBooks.size(); i++) { System.out.println("  - " + candidateBooks.get(i).getTitulo() + " Rating: " + candidateBooks.get(i).getCalificacionPromedio());}
-
-        DoubleList<Book> topBooks = new DoubleList<>();
-        for(int i=0; i < candidateBooks.size() && i < count; i++){
-            topBooks.addLast(candidateBooks.get(i));
-        }
-        System.out.println("[DEBUG] Fallback - top libros (" + topBooks.size() + "):");
-        for(int i=0; i<topBooks.size(); i++) { System.out.println("  - " + topBooks.get(i).getTitulo());}
-        return topBooks;
-    }
-
-    // Getters para las colecciones internas (útil para la GUI o pruebas)
-    public RedBlackTree<Book> getCatalogoLibros() {
-        return catalogoLibros;
-    }
-
-    public DoubleList<User> getUsuarios() {
-        return usuarios;
-    }
-
-    public DoubleList<Loan> getPrestamosActivos() {
-        return prestamosActivos;
-    }
-
-    public ColaPrioridad<LoanRequest> getWaitlist() {
-        return waitlist;
-    }
-
-    public Graph<User> getRedAfinidad() {
-        return redAfinidad;
-    }
-
-    // --- Métodos para Administrador ---
-
-    public synchronized String deleteBook(String bookId) {
-        Book bookToDelete = findBookById(bookId);
-        if (bookToDelete == null) {
-            return "Error: Libro con ID " + bookId + " no encontrado en el catálogo.";
-        }
-
-        // Verificar si el libro está en préstamos activos
-        for (int i = 0; i < prestamosActivos.size(); i++) {
-            if (prestamosActivos.get(i).getLibro().equals(bookToDelete)) {
-                return "Error: El libro '" + bookToDelete.getTitulo() + "' tiene préstamos activos y no puede ser marcado como no disponible.";
-            }
-        }
-
-        // Verificar si el libro está en la lista de espera
-        ColaPrioridad<LoanRequest> tempWaitlist = new ColaPrioridad<>();
-        boolean onWaitlist = false;
-        while(!waitlist.isEmpty()){
-            LoanRequest req = waitlist.poll();
-            if(req.getBook().equals(bookToDelete)){
-                onWaitlist = true;
-            }
-            tempWaitlist.add(req);
-        }
-        while(!tempWaitlist.isEmpty()){
-            waitlist.add(tempWaitlist.poll());
-        }
-
-        if (onWaitlist) {
-            return "Error: El libro '" + bookToDelete.getTitulo() + "' está en la lista de espera y no puede ser marcado como no disponible.";
-        }
-
-        // Marcar el libro como no disponible
-        bookToDelete.setAvailable(false);
-        return "Libro '" + bookToDelete.getTitulo() + "' marcado como no disponible.";
-    }
-
-    public java.util.Map<String, Integer> getLoanCountsPerUser() {
-        java.util.Map<String, Integer> loanCounts = new java.util.HashMap<>();
-        for (int i = 0; i < usuarios.size(); i++) {
-            User user = usuarios.get(i);
-            int count = 0;
-            // Contar préstamos activos
-            for (int j = 0; j < prestamosActivos.size(); j++) {
-                if (prestamosActivos.get(j).getUsuario().equals(user)) {
-                    count++;
-                }
-            }
-            // Contar préstamos en el historial
-            if (user.getHistorialPrestamos() != null) {
-                count += user.getHistorialPrestamos().size();
-            }
-            loanCounts.put(user.getUsername(), count);
-        }
-        return loanCounts;
-    }
-
-    public DoubleList<Book> getMostRatedBooks(int count) {
-        DoubleList<Book> allBooksFromCatalog = catalogoLibros.inOrderTraversal();
-        DoubleList<Book> availableBooks = new DoubleList<>();
-        for(int i=0; i<allBooksFromCatalog.size(); i++){
-            Book book = allBooksFromCatalog.get(i);
-            if(book.isAvailable()){ // Considerar solo libros disponibles
-                availableBooks.addLast(book);
-            }
-        }
-
-        // Ordenar libros por calificación promedio (descendente)
-        if (!availableBooks.isEmpty()) {
-            for (int i = 0; i < availableBooks.size() - 1; i++) {
-                for (int j = 0; j < availableBooks.size() - i - 1; j++) {
-                    if (availableBooks.get(j).getCalificacionPromedio() < availableBooks.get(j + 1).getCalificacionPromedio()) {
-                        Book temp = availableBooks.get(j);
-                        availableBooks.set(j, availableBooks.get(j + 1));
-                        availableBooks.set(j + 1, temp);
-                    }
-                }
-            }
-        }
-
-        DoubleList<Book> topBooks = new DoubleList<>();
-        for (int i = 0; i < availableBooks.size() && i < count; i++) {
-            topBooks.addLast(availableBooks.get(i));
-        }
-        return topBooks;
-    }
-
-    public java.util.Map<String, Integer> getUsersWithMostConnections(int count) {
-        java.util.Map<String, Integer> userConnections = new java.util.HashMap<>();
-        if (redAfinidad == null || usuarios.isEmpty()) { 
-            return userConnections; // Grafo vacío o no inicializado, o no hay usuarios
-        }
-
-        for (int i = 0; i < usuarios.size(); i++) {
-            User user = usuarios.get(i);
-            DoubleList<User> neighbors = redAfinidad.getNeighbors(user);
-            userConnections.put(user.getUsername(), neighbors != null ? neighbors.size() : 0);
-        }
-
-        // Ordenar el mapa por valores (número de conexiones) de forma descendente
-        java.util.List<java.util.Map.Entry<String, Integer>> list = new java.util.ArrayList<>(userConnections.entrySet());
-        list.sort(java.util.Map.Entry.<String, Integer>comparingByValue().reversed());
-
-        java.util.Map<String, Integer> topUsers = new java.util.LinkedHashMap<>(); // Para mantener el orden de inserción
-        for (int i = 0; i < list.size() && i < count; i++) {
-            java.util.Map.Entry<String, Integer> entry = list.get(i);
-            topUsers.put(entry.getKey(), entry.getValue());
-        }
-        return topUsers;
-    }
-
-    public synchronized String deleteUser(String usernameToDelete) {
-        User userToDelete = findUserByUsername(usernameToDelete);
-
-        if (userToDelete == null) {
-            return "Error: Usuario '" + usernameToDelete + "' no encontrado.";
-        }
-
-        // Opcional: Impedir que un admin se elimine a sí mismo si está logueado
-        // if (currentUserLoggedIn != null && currentUserLoggedIn.equals(userToDelete) && currentUserLoggedIn.getTipoUsuario() == TipoUsuario.ADMINISTRADOR) {
-        //     return "Error: Un administrador no puede eliminarse a sí mismo.";
-        // }
-
-        // 1. Verificar préstamos activos
-        for (int i = 0; i < prestamosActivos.size(); i++) {
-            Loan loan = prestamosActivos.get(i);
-            if (loan.getUsuario().equals(userToDelete)) {
-                return "Error: El usuario '" + usernameToDelete + "' tiene préstamos activos. No se puede eliminar.";
-            }
-        }
-
-        // 2. Eliminar valoraciones de este usuario de todos los libros
-        DoubleList<Book> allBooks = catalogoLibros.inOrderTraversal();
-        for (int i = 0; i < allBooks.size(); i++) {
-            Book book = allBooks.get(i);
-            DoubleList<Rating> ratingsDelLibro = book.getRatings();
-            DoubleList<Rating> ratingsAGuardar = new DoubleList<>(); // Nueva lista para ratings que no son del usuario
-            boolean bookRatingsModified = false;
-            for (int j = 0; j < ratingsDelLibro.size(); j++) {
-                Rating rating = ratingsDelLibro.get(j);
-                if (!rating.getUsuario().equals(userToDelete)) {
-                    ratingsAGuardar.addLast(rating);
-                } else {
-                    bookRatingsModified = true;
-                }
-            }
-            if (bookRatingsModified) {
-                // Reemplazar la lista de ratings del libro y recalcular promedio
-                // Esto asume que Book tiene un setRatings(DoubleList<Rating>) o que podemos limpiar y re-añadir
-                // Por ahora, vamos a limpiar y re-añadir.
-                ratingsDelLibro.clear(); // Asume que DoubleList tiene clear()
-                for(int k=0; k < ratingsAGuardar.size(); k++){
-                    ratingsDelLibro.addLast(ratingsAGuardar.get(k));
-                }
-                book.recalculateCalificacionPromedio(); // Asume que Book tiene este método
-            }
-        }
-
-        // 3. Eliminar historial de préstamos y valoraciones DEL USUARIO
-        if (userToDelete.getHistorialPrestamos() != null) {
-            userToDelete.getHistorialPrestamos().clear(); // Asume clear()
-        }
-        if (userToDelete.getLibrosValorados() != null) {
-            userToDelete.getLibrosValorados().clear(); // Asume clear()
-        }
-
-        // 4. Eliminar del grafo de afinidad
-        redAfinidad.removeVertex(userToDelete); // Asume que Graph tiene removeVertex(T vertex)
-
-        // 5. Eliminar de la lista de usuarios
-        boolean removedFromList = usuarios.remove(userToDelete); // Asume que DoubleList tiene remove(Object o)
-        
-        if (removedFromList) {
-            return "Usuario '" + usernameToDelete + "' eliminado exitosamente junto con su historial y valoraciones.";
-        } else {
-            // Esto no debería pasar si el usuario fue encontrado inicialmente, pero es una salvaguarda
-            return "Error: No se pudo eliminar al usuario '" + usernameToDelete + "' de la lista principal (pero otros datos podrían haber sido afectados).";
-        }
-    }
-
-    // --- Implementación de Sugerencia de Amigos por Categoría de Libros ---
-    public DoubleList<String> getPreferredCategories(User user) {
-        DoubleList<String> preferredCategories = new DoubleList<>();
-        if (user == null) return preferredCategories;
-
-        DoubleList<Loan> loanHistory = user.getHistorialPrestamos();
-        if (loanHistory != null) {
-            for (int i = 0; i < loanHistory.size(); i++) {
-                Loan loan = loanHistory.get(i);
-                if (loan != null && loan.getLibro() != null) {
-                    Book book = loan.getLibro();
-                    if (book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
-                        String category = book.getCategoria().trim();
-                        String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
-                        if (!preferredCategories.contains(formattedCategory)) {
-                            preferredCategories.addLast(formattedCategory);
-                        }
-                    }
-                }
-            }
-        }
-
-        DoubleList<Rating> ratings = user.getLibrosValorados();
-        if (ratings != null) {
-            for (int i = 0; i < ratings.size(); i++) {
-                Rating rating = ratings.get(i);
-                if (rating != null && rating.getPuntuacion() >= 3) { 
-                    Book book = rating.getLibro();
-                    if (book != null && book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
-                        String category = book.getCategoria().trim();
-                        String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
-                        if (!preferredCategories.contains(formattedCategory)) {
-                            preferredCategories.addLast(formattedCategory);
-                        }
-                    }
-                }
-            }
-        }
-        return preferredCategories;
-    }
-
-    public DoubleList<FriendSuggestionDetail> getFriendSuggestionsByBookCategory(String username, int count) {
-        User currentUser = findUserByUsername(username);
-        if (currentUser == null) return new DoubleList<>(); // Devolver lista vacía de FriendSuggestionDetail
-
-        DoubleList<String> currentUserPreferredCategories = getPreferredCategories(currentUser);
-        if (currentUserPreferredCategories.isEmpty()) return new DoubleList<>();
-
-        // Usar una lista de Java para facilitar la ordenación con comparador
-        List<FriendSuggestionDetail> suggestionDetailsList = new ArrayList<>();
-        DoubleList<User> allUsers = getUsuarios();
-        DoubleList<User> currentUserConnections = null;
-        if(redAfinidad.hasVertex(currentUser)) { 
-            currentUserConnections = redAfinidad.getNeighbors(currentUser);
-        }
-
-        for (int i = 0; i < allUsers.size(); i++) {
-            User otherUser = allUsers.get(i);
-            if (otherUser.equals(currentUser)) continue; 
-
-            boolean alreadyConnected = false;
-            if (currentUserConnections != null && currentUserConnections.contains(otherUser)){
-                alreadyConnected = true;
-            }
-            if (alreadyConnected) continue;
-            
-            boolean requestExists = false;
-            DoubleList<FriendRequest> currentUserSentRequests = currentUser.getSentFriendRequests();
-            if (currentUserSentRequests != null) { 
-                for(int k=0; k < currentUserSentRequests.size(); k++){ 
-                    FriendRequest req = currentUserSentRequests.get(k);
-                    if(req.getReceiverUsername().equals(otherUser.getUsername()) && 
-                       (req.getStatus() == FriendRequestStatus.PENDING || req.getStatus() == FriendRequestStatus.ACCEPTED)){
-                        requestExists = true;
-                        break;
-                    }
-                }
-            }
-            if(requestExists) continue;
-
-            DoubleList<FriendRequest> currentUserReceivedRequests = currentUser.getReceivedFriendRequests();
-            if (currentUserReceivedRequests != null) { 
-                for(int k=0; k < currentUserReceivedRequests.size(); k++){ 
-                    FriendRequest req = currentUserReceivedRequests.get(k);
-                    if(req.getSenderUsername().equals(otherUser.getUsername()) && 
-                       (req.getStatus() == FriendRequestStatus.PENDING || req.getStatus() == FriendRequestStatus.ACCEPTED)){
-                        requestExists = true;
-                        break;
-                    }
-                }
-            }
-            if(requestExists) continue;
-
-            DoubleList<String> otherUserPreferredCategories = getPreferredCategories(otherUser);
-            DoubleList<String> commonCategoriesFound = new DoubleList<>(); // Para almacenar las categorías comunes
-            int commonCategoriesCount = 0;
-
-            for (int j = 0; j < currentUserPreferredCategories.size(); j++) {
-                String preferredCat = currentUserPreferredCategories.get(j);
-                if (otherUserPreferredCategories.contains(preferredCat)) {
-                    commonCategoriesCount++;
-                    if(!commonCategoriesFound.contains(preferredCat)) { // Asegurar unicidad si es necesario, aunque aquí solo listamos
-                        commonCategoriesFound.addLast(preferredCat);
-                    }
-                }
-            }
-
-            if (commonCategoriesCount > 0) {
-                suggestionDetailsList.add(new FriendSuggestionDetail(otherUser, commonCategoriesFound, commonCategoriesCount));
-            }
-        }
-
-        // Ordenar la lista de FriendSuggestionDetail por similarityScore (descendente)
-        suggestionDetailsList.sort((s1, s2) -> Integer.compare(s2.getSimilarityScore(), s1.getSimilarityScore()));
-
-        // Convertir la List<FriendSuggestionDetail> ordenada a DoubleList<FriendSuggestionDetail> y tomar 'count' elementos
-        DoubleList<FriendSuggestionDetail> finalSuggestions = new DoubleList<>();
-        for (int i = 0; i < suggestionDetailsList.size() && i < count; i++) {
-            finalSuggestions.addLast(suggestionDetailsList.get(i));
-        }
-        return finalSuggestions;
-    }
-
-    // --- Gestión de Solicitudes de Amistad ---
-    public synchronized String sendFriendRequest(String senderUsername, String receiverUsername) {
-        User senderUser = findUserByUsername(senderUsername);
-        User receiverUser = findUserByUsername(receiverUsername);
-
-        if (senderUser == null) return "Error: Usuario remitente no encontrado.";
-        if (receiverUser == null) return "Error: Usuario destinatario no encontrado.";
-        if (senderUsername.equals(receiverUsername)) return "Error: No puedes enviarte una solicitud a ti mismo.";
-
-        if (redAfinidad.hasVertex(senderUser) && redAfinidad.getNeighbors(senderUser).contains(receiverUser)) {
-            return "Error: Ya sois amigos.";
-        }
-
-        for (int i = 0; i < senderUser.getSentFriendRequests().size(); i++) {
-            FriendRequest req = senderUser.getSentFriendRequests().get(i);
-            if (req.getReceiverUsername().equals(receiverUsername)) {
-                if (req.getStatus() == FriendRequestStatus.PENDING) return "Error: Ya existe una solicitud pendiente para este usuario.";
-                if (req.getStatus() == FriendRequestStatus.ACCEPTED) return "Error: Ya sois amigos (solicitud previamente aceptada).";
-            }
-        }
-         for (int i = 0; i < senderUser.getReceivedFriendRequests().size(); i++) {
-            FriendRequest req = senderUser.getReceivedFriendRequests().get(i);
-            if (req.getSenderUsername().equals(receiverUsername) && req.getStatus() == FriendRequestStatus.PENDING) {
-                return "Error: Ya tienes una solicitud pendiente de este usuario. Revísala.";
-            }
-        }       
-
-        FriendRequest newRequest = new FriendRequest(senderUsername, receiverUsername);
-        senderUser.getSentFriendRequests().addLast(newRequest);
-        receiverUser.getReceivedFriendRequests().addLast(newRequest);
-        return "Solicitud de amistad enviada a " + receiverUsername + ".";
-    }
-
-    public DoubleList<FriendRequest> getPendingFriendRequests(String username) {
-        User user = findUserByUsername(username);
-        DoubleList<FriendRequest> pendingRequests = new DoubleList<>();
-        if (user == null || user.getReceivedFriendRequests() == null) return pendingRequests;
-
-        for (int i = 0; i < user.getReceivedFriendRequests().size(); i++) {
-            FriendRequest req = user.getReceivedFriendRequests().get(i);
-            if (req.getStatus() == FriendRequestStatus.PENDING) {
-                pendingRequests.addLast(req);
-            }
-        }
-        return pendingRequests;
-    }
-    
-    public DoubleList<FriendRequest> getSentFriendRequestsWithStatus(String username) {
-        User user = findUserByUsername(username);
-        if (user == null || user.getSentFriendRequests() == null) {
-            return new DoubleList<>(); // Devuelve lista vacía si no hay usuario o solicitudes
-        }
-        return user.getSentFriendRequests();
-    }
-
-    public synchronized String acceptFriendRequest(String acceptorUsername, String requesterUsername) {
-        User acceptor = findUserByUsername(acceptorUsername);
-        User requester = findUserByUsername(requesterUsername);
-
-        if (acceptor == null || requester == null) {
-            return "Error: Uno o ambos usuarios no existen.";
-        }
-        if (acceptor.equals(requester)) {
-            return "Error: No puedes aceptar una solicitud de ti mismo.";
-        }
-
-        FriendRequest requestInAcceptorList = null;
-        for (int i = 0; i < acceptor.getReceivedFriendRequests().size(); i++) {
-            FriendRequest req = acceptor.getReceivedFriendRequests().get(i);
-            if (req.getSenderUsername().equals(requesterUsername) && req.getStatus() == FriendRequestStatus.PENDING) {
-                requestInAcceptorList = req;
-                break;
-            }
-        }
-
-        if (requestInAcceptorList == null) {
-            return "No se encontró una solicitud pendiente de " + requesterUsername + " para " + acceptorUsername + ".";
-        }
-
-        requestInAcceptorList.setStatus(FriendRequestStatus.ACCEPTED);
-
-        // Sincronizar el estado en la lista de enviados del solicitante
-        for (int i = 0; i < requester.getSentFriendRequests().size(); i++) {
-            FriendRequest sentReq = requester.getSentFriendRequests().get(i);
-            if (sentReq.getReceiverUsername().equals(acceptorUsername) && sentReq.getSenderUsername().equals(requesterUsername)) {
-                sentReq.setStatus(FriendRequestStatus.ACCEPTED);
-                break;
-            }
-        }
-        
-        saveData(DATA_FILE_PATH);
-        return "Solicitud de amistad de " + requesterUsername + " aceptada.";
-    }
-
-    public synchronized String rejectFriendRequest(String rejectorUsername, String requesterUsername) {
-        User rejectorUser = findUserByUsername(rejectorUsername);
-        User requesterUser = findUserByUsername(requesterUsername);
-
-        if (rejectorUser == null || requesterUser == null) return "Error: Uno o ambos usuarios no encontrados.";
-
-        FriendRequest requestToReject = null;
-        int requestIndexInReceived = -1;
-        // Buscar en las recibidas del que rechaza
-        for (int i = 0; i < rejectorUser.getReceivedFriendRequests().size(); i++) {
-            FriendRequest req = rejectorUser.getReceivedFriendRequests().get(i);
-            if (req.getSenderUsername().equals(requesterUsername) && req.getStatus() == FriendRequestStatus.PENDING) {
-                requestToReject = req;
-                requestIndexInReceived = i;
-                break;
-            }
-        }
-
-        if (requestToReject == null) return "Error: No se encontró una solicitud pendiente de " + requesterUsername + " para rechazar.";
-
-        // Opción 1: Marcar como REJECTED
-        requestToReject.setStatus(FriendRequestStatus.REJECTED);
-        // Actualizar también en la lista de enviados del solicitante original
-         for (int i = 0; i < requesterUser.getSentFriendRequests().size(); i++) {
-            FriendRequest req = requesterUser.getSentFriendRequests().get(i);
-            if (req.getReceiverUsername().equals(rejectorUsername) && req.getSenderUsername().equals(requesterUsername)) { 
-                req.setStatus(FriendRequestStatus.REJECTED);
-                break;
-            }
-        }
-        return "Solicitud de amistad de " + requesterUsername + " rechazada.";
-    }
-
-    public synchronized String removeFriend(String user1Username, String user2Username) {
-        User user1 = findUserByUsername(user1Username);
-        User user2 = findUserByUsername(user2Username);
-
-        if (user1 == null || user2 == null) {
-            return "Error: Uno o ambos usuarios no existen.";
-        }
-
-        if (user1.equals(user2)) {
-            return "Error: No puedes eliminarte a ti mismo como amigo.";
-        }
-
-        boolean friendshipAltered = false;
-
-        // Buscar en solicitudes enviadas por user1 a user2
-        for (int i = 0; i < user1.getSentFriendRequests().size(); i++) {
-            FriendRequest req = user1.getSentFriendRequests().get(i);
-            if (req.getReceiverUsername().equals(user2Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
-                req.setStatus(FriendRequestStatus.REJECTED); // O un nuevo estado UNFRIENDED
-                friendshipAltered = true;
-            }
-        }
-        // Buscar en solicitudes recibidas por user1 de user2
-        for (int i = 0; i < user1.getReceivedFriendRequests().size(); i++) {
-            FriendRequest req = user1.getReceivedFriendRequests().get(i);
-            if (req.getSenderUsername().equals(user2Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
-                req.setStatus(FriendRequestStatus.REJECTED);
-                friendshipAltered = true;
-            }
-        }
-        // Sincronizar para user2
-        for (int i = 0; i < user2.getSentFriendRequests().size(); i++) {
-            FriendRequest req = user2.getSentFriendRequests().get(i);
-            if (req.getReceiverUsername().equals(user1Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
-                req.setStatus(FriendRequestStatus.REJECTED);
-                friendshipAltered = true;
-            }
-        }
-        for (int i = 0; i < user2.getReceivedFriendRequests().size(); i++) {
-            FriendRequest req = user2.getReceivedFriendRequests().get(i);
-            if (req.getSenderUsername().equals(user1Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
-                req.setStatus(FriendRequestStatus.REJECTED);
-                friendshipAltered = true;
-            }
-        }
-
-        if (friendshipAltered) {
-            saveData(DATA_FILE_PATH);
-            return "Amistad entre " + user1Username + " y " + user2Username + " terminada (estado de solicitud actualizado).";
-        } else {
-            return "No se encontró una amistad aceptada entre " + user1Username + " y " + user2Username + " para terminar.";
-        }
-    }
-
-    // --- NUEVO: Lógica para afinidad automática basada en valoraciones ---
-    private void clearGraphEdges(Graph<User> graphToClear) {
-        if (graphToClear == null) return;
-        DoubleList<User> vertexList = new DoubleList<>();
-        // Copiamos los vértices para evitar ConcurrentModificationException si la estructura interna de getVertices cambia
-        for(User u : graphToClear.getVertices()){
-            vertexList.addLast(u);
-        }
-
-        for (int i = 0; i < vertexList.size(); i++) {
-            User u1 = vertexList.get(i);
-            DoubleList<User> neighbors = graphToClear.getNeighbors(u1);
-            // Creamos una copia de los vecinos para iterar y modificar
-            DoubleList<User> neighborsCopy = new DoubleList<>();
-            for(int k=0; k < neighbors.size(); k++){
-                neighborsCopy.addLast(neighbors.get(k));
-            }
-            for (int j = 0; j < neighborsCopy.size(); j++) {
-                User u2 = neighborsCopy.get(j);
-                graphToClear.removeEdge(u1, u2);
-            }
-        }
-    }
-
-    public void recalculateAffinitiesBasedOnRatings() {
-        if (this.usuarios == null || this.usuarios.isEmpty()) {
-            System.out.println("DEBUG: No hay usuarios para calcular afinidades.");
-            return;
-        }
-
-        if (redAfinidad == null) {
-            redAfinidad = new Graph<>();
-        } else {
-            // Primero, eliminamos todas las aristas existentes que representaban afinidades previas.
-            // Los vértices (usuarios) se mantienen.
-            clearGraphEdges(redAfinidad);
-        }
-
-        DoubleList<User> lectores = new DoubleList<>();
-        for (int i = 0; i < usuarios.size(); i++) {
-            User u = usuarios.get(i);
-            if (u.getTipoUsuario() == TipoUsuario.LECTOR) {
-                lectores.addLast(u);
-                redAfinidad.addVertex(u); // Asegurarse de que todos los lectores son vértices
-            }
-        }
-
-        for (int i = 0; i < lectores.size(); i++) {
-            User userA = lectores.get(i);
-            for (int j = i + 1; j < lectores.size(); j++) {
-                User userB = lectores.get(j);
-
-                if (userA.equals(userB)) continue;
-
-                DoubleList<Rating> ratingsA = userA.getLibrosValorados();
-                DoubleList<Rating> ratingsB = userB.getLibrosValorados();
-
-                if (ratingsA.isEmpty() || ratingsB.isEmpty()) continue;
-
-                int commonBooksWithSimilarRating = 0;
-
-                for (int k = 0; k < ratingsA.size(); k++) {
-                    Rating ratingA = ratingsA.get(k);
-                    Book bookA = ratingA.getLibro();
-                    if (bookA == null) continue;
-
-                    for (int l = 0; l < ratingsB.size(); l++) {
-                        Rating ratingB = ratingsB.get(l);
-                        Book bookB = ratingB.getLibro();
-                        if (bookB == null) continue;
-
-                        if (bookA.getId().equals(bookB.getId())) {
-                            // Libro en común encontrado
-                            int diff = Math.abs(ratingA.getPuntuacion() - ratingB.getPuntuacion());
-                            if (diff <= 1) { // Calificaciones similares (diferencia de 0 o 1)
-                                commonBooksWithSimilarRating++;
-                            }
-                            break; // Pasar al siguiente rating de userA
-                        }
-                    }
-                }
-
-                if (commonBooksWithSimilarRating >= 3) {
-                    redAfinidad.addEdge(userA, userB);
-                    System.out.println("DEBUG: Afinidad automática creada entre " + userA.getUsername() + " y " + userB.getUsername());
-                }
-            }
-        }
-        System.out.println("DEBUG: Recálculo de afinidades automáticas completado.");
-        saveData(DATA_FILE_PATH); // Guardar cambios en la red de afinidad
-    }
-    
-    public String adminRecalculateAllAffinities() {
-        recalculateAffinitiesBasedOnRatings();
-        return "Se han recalculado todas las afinidades automáticas basadas en valoraciones.";
-    }
-
-    // --- Implementación de Sugerencia de Amigos por Red (Amigos de Amigos) ---
-    public DoubleList<User> getFriendSuggestionsByNetwork(String username, int count) {
-        DoubleList<User> suggestions = new DoubleList<>();
-        User currentUser = findUserByUsername(username);
-
-        if (currentUser == null || !redAfinidad.hasVertex(currentUser)) {
-            return suggestions; // Usuario no encontrado o no en el grafo
-        }
-
-        DoubleList<User> directConnections = redAfinidad.getNeighbors(currentUser);
-        DoubleList<User> candidates = new DoubleList<>();
-
-        // 1. Obtener amigos de amigos (vecinos de segundo grado)
-        for (int i = 0; i < directConnections.size(); i++) {
-            User friend = directConnections.get(i);
-            DoubleList<User> friendsOfFriend = redAfinidad.getNeighbors(friend);
-            for (int j = 0; j < friendsOfFriend.size(); j++) {
-                User potentialSuggestion = friendsOfFriend.get(j);
-                // Añadir si no es el usuario actual y no es ya un amigo directo
-                if (!potentialSuggestion.equals(currentUser) && !directConnections.contains(potentialSuggestion)) {
-                    if (!candidates.contains(potentialSuggestion)) { // Evitar duplicados en la lista de candidatos
-                        candidates.addLast(potentialSuggestion);
-                    }
-                }
-            }
-        }
-        for (int i = 0; i < candidates.size() && suggestions.size() < count; i++) {
-            suggestions.addLast(candidates.get(i));
-        }
-
-        return suggestions;
-    }
+package org.example;
+
+import org.example.model.Book;
+import org.example.model.ChatMessage;
+import org.example.model.FriendRequest;
+import org.example.model.Loan;
+import org.example.model.LoanRequest;
+import org.example.model.User;
+import org.example.model.Rating;
+import org.example.model.enums.FriendRequestStatus;
+import org.example.model.enums.TipoUsuario;
+import org.example.structures.BinaryTree.BinaryTree;
+import org.example.structures.RedBlackTree.RedBlackTree;
+import org.example.structures.colaPrioridad.ColaPrioridad;
+import org.example.structures.colaPrioridad.ColaPrioridadIndexada;
+import org.example.structures.colaPrioridad.TopK;
+import org.example.structures.doubleList.DoubleList;
+import org.example.structures.graph.CsrGraph;
+import org.example.structures.graph.Graph;
+import org.example.structures.invertedIndex.InvertedIndex;
+import org.example.structures.invertedIndex.PostingList;
+import org.example.model.FriendSuggestionDetail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DigitalLibrary implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String DATA_FILE_PATH = "library_data.dat";
+
+    private RedBlackTree<Book> catalogoLibros;
+    private DoubleList<User> usuarios;
+    private DoubleList<Loan> prestamosActivos;
+    private ColaPrioridad<LoanRequest> waitlist; // Lista de espera global de versiones anteriores; se migra al cargar
+    // Lista de espera de cada libro (id -> solicitudes por orden de llegada). Solo hay entrada
+    // para los libros con solicitudes pendientes, así que containsKey responde si un libro tiene espera.
+    private Map<String, ColaPrioridadIndexada<LoanRequest>> listasEsperaPorLibro;
+    // Handle de cada solicitud pendiente, con clave "idLibro|username", para cancelarla en O(log n)
+    private transient Map<String, ColaPrioridadIndexada.Handle<LoanRequest>> solicitudesPendientes;
+    private Graph<User> redAfinidad;
+    // Aristas de redAfinidad que se deben a préstamos (dos lectores del mismo libro). La red es la unión de estas
+    // y de las afinidades por valoraciones; se guardan aparte para que quitar o recalcular las de valoraciones
+    // no borre las de préstamos. Se protege con afinidadLock, igual que redAfinidad
+    private Graph<User> afinidadesPorPrestamo;
+    // Instantánea CSR de redAfinidad para las consultas de solo lectura; se rehace cuando el grafo cambia.
+    // Es volatile para publicar cada instantánea nueva de forma atómica a los lectores, que no toman el monitor
+    private transient volatile CsrGraph<User> redAfinidadCsr;
+    // Protege el grafo vivo redAfinidad: todo acceso directo al grafo se hace con este cerrojo, que se toma
+    // después del monitor de la biblioteca y nunca al revés. Las consultas leen la instantánea CSR
+    private transient Object afinidadLock;
+    // Hace que los lotes de afinidades (flushAffinityUpdates y el recálculo completo) se apliquen de uno en uno
+    private transient Object mantenimientoLock;
+    // Escritura del fichero de datos, fuera del monitor (ver saveData)
+    private transient Object guardadoLock;
+    private transient long secuenciaGuardado; // Copias serializadas hasta ahora (bajo el monitor)
+    private transient Map<String, Long> ultimoGuardadoPorFichero; // Secuencia de la copia escrita en cada fichero
+    // Valoraciones cuyas afinidades aún no se han aplicado, con clave "idLibro|username" (ver flushAffinityUpdates)
+    private transient Map<String, ValoracionPendiente> valoracionesPendientes;
+    private transient AffinityMaintenanceWorker afinidadWorker;
+    // Índice username -> User para búsquedas O(1); se reconstruye al cargar los datos
+    private transient Map<String, User> usuariosPorUsername;
+    // Índice secundario id -> Book (el árbol está ordenado por título); incluye libros no disponibles
+    private transient Map<String, Book> librosPorId;
+    // Índices invertidos usuario <-> libro (valorados y del historial de préstamos), con ids densos;
+    // responden "quién valoró/leyó este libro" sin recorrer a todos los usuarios. Se reconstruyen al cargar
+    private transient InvertedIndex<User, Book> indiceValoraciones;
+    private transient InvertedIndex<User, Book> indicePrestamos;
+
+    // Nuevos atributos para el Chat
+    private Map<String, DoubleList<ChatMessage>> chatMessagesByRoom;
+    private DoubleList<String> chatRoomNames;
+
+    // Orden de los rankings de libros: mejor calificación promedio primero
+    private static final Comparator<Book> POR_CALIFICACION_DESC = Comparator.comparingDouble(Book::getCalificacionPromedio).reversed();
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public DigitalLibrary() {
+        this.catalogoLibros = new RedBlackTree<>(Book.POR_TITULO_E_ID);
+        this.usuarios = new DoubleList<>();
+        this.prestamosActivos = new DoubleList<>();
+        this.waitlist = new ColaPrioridad<>();
+        this.listasEsperaPorLibro = new HashMap<>();
+        this.solicitudesPendientes = new HashMap<>();
+        this.redAfinidad = new Graph<>();
+        this.afinidadesPorPrestamo = new Graph<>();
+        this.valoracionesPendientes = new LinkedHashMap<>();
+        initConcurrencia();
+        this.usuariosPorUsername = new HashMap<>();
+        this.librosPorId = new HashMap<>();
+        this.indiceValoraciones = new InvertedIndex<>();
+        this.indicePrestamos = new InvertedIndex<>();
+
+        this.chatMessagesByRoom = new HashMap<>();
+        this.chatRoomNames = new DoubleList<>();
+        
+        String generalRoom = "General";
+        if (!this.chatRoomNames.contains(generalRoom)) {
+            this.chatRoomNames.addLast(generalRoom);
+        }
+        this.chatMessagesByRoom.putIfAbsent(generalRoom, new DoubleList<>());
+    }
+
+    // Cerrojos y estado de guardado; no se persisten, así que también se crean al cargar
+    private void initConcurrencia() {
+        this.afinidadLock = new Object();
+        this.mantenimientoLock = new Object();
+        this.guardadoLock = new Object();
+        this.ultimoGuardadoPorFichero = new HashMap<>();
+    }
+
+    // --- Métodos de Persistencia ---
+    /**
+     * Guarda la biblioteca. La copia se serializa en memoria bajo el monitor (con el grafo bloqueado), de modo
+     * que es consistente, y se escribe en el fichero fuera de él: las demás operaciones no esperan al disco.
+     * Si dos guardados se cruzan, una copia nunca sobrescribe en el fichero a otra más reciente.
+     */
+    public void saveData(String filePath) {
+        byte[] datos;
+        long secuencia;
+        synchronized (this) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+                synchronized (afinidadLock) {
+                    oos.writeObject(this);
+                }
+            } catch (IOException e) {
+                System.err.println("Error al guardar los datos de la biblioteca: " + e.getMessage());
+                e.printStackTrace();
+                return;
+            }
+            datos = buffer.toByteArray();
+            secuencia = ++secuenciaGuardado;
+        }
+
+        synchronized (guardadoLock) {
+            Long ultimo = ultimoGuardadoPorFichero.get(filePath);
+            if (ultimo != null && ultimo > secuencia) {
+                return; // El fichero ya tiene una copia más reciente
+            }
+            try (FileOutputStream fos = new FileOutputStream(filePath)) {
+                fos.write(datos);
+                ultimoGuardadoPorFichero.put(filePath, secuencia);
+                System.out.println("Datos de la biblioteca guardados en: " + filePath);
+            } catch (IOException e) {
+                System.err.println("Error al guardar los datos de la biblioteca: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static DigitalLibrary loadData(String filePath) {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
+            DigitalLibrary library = (DigitalLibrary) ois.readObject();
+            System.out.println("Datos de la biblioteca cargados desde: " + filePath);
+
+            // Asegurar inicialización de campos de chat después de la carga
+            if (library.chatMessagesByRoom == null) {
+                library.chatMessagesByRoom = new HashMap<>();
+            }
+            if (library.chatRoomNames == null) {
+                library.chatRoomNames = new DoubleList<>();
+            }
+            
+            String generalRoom = "General";
+            boolean generalExistsInNames = false;
+            if (library.chatRoomNames != null) { // Comprobar nulidad antes de iterar
+                for(int i = 0; i < library.chatRoomNames.size(); i++){
+                    if(library.chatRoomNames.get(i).equalsIgnoreCase(generalRoom)){
+                        generalExistsInNames = true;
+                        break;
+                    }
+                }
+            }
+            if (!generalExistsInNames) {
+                 if (library.chatRoomNames == null) library.chatRoomNames = new DoubleList<>(); // Asegurar que no sea null
+                 library.chatRoomNames.addLast(generalRoom);
+            }
+            library.chatMessagesByRoom.putIfAbsent(generalRoom, new DoubleList<>());
+
+            // **NUEVO: Asegurar inicialización de listas de FriendRequest en Users después de la carga**
+            if (library.usuarios != null) {
+                for (int i = 0; i < library.usuarios.size(); i++) {
+                    User user = library.usuarios.get(i);
+                    if (user != null) {
+             
+                        user.initializeFriendRequestLists(); // Llamamos al método que hemos añadido a User
+                    }
+                }
+            }
+            library.migrateWaitlist();
+            library.valoracionesPendientes = new LinkedHashMap<>();
+            library.initConcurrencia();
+            library.rebuildUserIndex();
+            library.ensureCatalogOrder();
+            library.rebuildBookIndex();
+            library.rebuildReadingIndexes();
+            if (library.afinidadesPorPrestamo == null) {
+                library.rebuildLoanAffinities();
+            }
+
+
+            return library;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error al cargar los datos de la biblioteca: " + e.getMessage());
+            System.out.println("Creando una nueva instancia de DigitalLibrary debido a error de carga.");
+            return new DigitalLibrary(); 
+        }
+    }
+
+    // --- Métodos del Chat ---
+    public synchronized void sendChatMessage(String roomName, ChatMessage message) {
+        if (message == null || roomName == null || roomName.trim().isEmpty()) {
+            System.err.println("Error: Mensaje o nombre de sala inválido.");
+            return;
+        }
+        String normalizedRoomName = roomName.trim(); 
+        ChatMessage messageForRoom = new ChatMessage(message.getSenderUsername(), normalizedRoomName, message.getContent());
+
+        chatMessagesByRoom.putIfAbsent(normalizedRoomName, new DoubleList<>());
+        // Añadir a la lista de nombres de salas si es realmente nueva y no solo un caso diferente
+        boolean existsInKnownNames = false;
+        for(int i=0; i < this.chatRoomNames.size(); i++){
+            if(this.chatRoomNames.get(i).equalsIgnoreCase(normalizedRoomName)){
+                existsInKnownNames = true;
+                break;
+            }
+        }
+        if(!existsInKnownNames){
+            this.chatRoomNames.addLast(normalizedRoomName); 
+        }
+
+        DoubleList<ChatMessage> messages = chatMessagesByRoom.get(normalizedRoomName);
+        messages.addLast(messageForRoom); // Ahora messages no debería ser null
+        System.out.println("Mensaje enviado a la sala '" + normalizedRoomName + "' por '" + message.getSenderUsername() + "'");
+    }
+
+    public DoubleList<ChatMessage> getChatMessages(String roomName) {
+        if (roomName == null) return new DoubleList<>();
+        return chatMessagesByRoom.getOrDefault(roomName.trim(), new DoubleList<>());
+    }
+
+    public synchronized DoubleList<String> getChatRoomNames() {
+        // Construye una lista actualizada de salas para la GUI
+        DoubleList<String> currentDisplayableRooms = new DoubleList<>();
+        currentDisplayableRooms.addLast("General"); // "General" siempre primero
+
+        if (catalogoLibros != null) {
+            for (Book book : catalogoLibros) {
+                if (book != null && book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
+                    String category = book.getCategoria().trim();
+                    String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
+
+                    if (!formattedCategory.equalsIgnoreCase("General")) {
+                        boolean exists = false;
+                        for(int j=0; j < currentDisplayableRooms.size(); j++){
+                            if(currentDisplayableRooms.get(j).equalsIgnoreCase(formattedCategory)){
+                                exists = true;
+                                break;
+                            }
+                        }
+                        if (!exists) {
+                            currentDisplayableRooms.addLast(formattedCategory);
+                        }
+                    }
+                }
+            }
+        }
+        // Sincronizar la lista `this.chatRoomNames` (la que se persiste) 
+        // con las salas actualmente mostrables y asegurar que todas tengan una entrada en chatMessagesByRoom.
+        // Esto es importante para la consistencia si se cargan datos o se añaden/eliminan libros.
+        
+        DoubleList<String> finalRoomNames = new DoubleList<>();
+        // Añadir todas las de currentDisplayableRooms a finalRoomNames y a this.chatMessagesByRoom
+        for (int i = 0; i < currentDisplayableRooms.size(); i++) {
+            String room = currentDisplayableRooms.get(i);
+            finalRoomNames.addLast(room);
+            this.chatMessagesByRoom.putIfAbsent(room, new DoubleList<>());
+        }
+
+        this.chatRoomNames.clear();
+        for(int i=0; i < currentDisplayableRooms.size(); i++){
+            this.chatRoomNames.addLast(currentDisplayableRooms.get(i));
+            this.chatMessagesByRoom.putIfAbsent(currentDisplayableRooms.get(i), new DoubleList<>()); // Asegurar que exista en el map
+        }
+        return this.chatRoomNames;
+    }
+
+    // --- Gestión de Libros ---
+    public synchronized void addBook(Book book) {
+        if (book != null) {
+            catalogoLibros.insert(book);
+            librosPorId.put(book.getId(), book);
+            registerCategoryRoom(book.getCategoria());
+        }
+    }
+
+    /**
+     * Añade un lote de libros de una vez. Los libros nuevos se ordenan, se mezclan con el
+     * catálogo actual (ya ordenado) y el árbol se reconstruye en O(n) con buildFromSorted,
+     * en lugar de hacer una inserción con rotaciones por libro. Las salas de chat se
+     * actualizan una sola vez por categoría al final.
+     * Los ids deben ser únicos: se omiten los libros cuyo id ya está en el catálogo y, si el lote
+     * repite un id, se añade solo el primero.
+     * @param books los libros a añadir (se ignoran los null).
+     * @return el número de libros añadidos.
+     */
+    public synchronized int addBooks(Collection<Book> books) {
+        if (books == null || books.isEmpty()) {
+            return 0;
+        }
+        List<Book> nuevos = new ArrayList<>(books.size());
+        Map<String, Book> idsDelLote = new HashMap<>();
+        for (Book book : books) {
+            if (book == null || librosPorId.containsKey(book.getId()) || idsDelLote.putIfAbsent(book.getId(), book) != null) {
+                continue;
+            }
+            nuevos.add(book);
+        }
+        if (nuevos.isEmpty()) {
+            return 0;
+        }
+        Comparator<? super Book> orden = catalogoLibros.comparator();
+        nuevos.sort(orden); // Orden estable, el mismo que usa el árbol
+
+        // Mezcla de dos secuencias ordenadas; ante empate va primero el libro que ya estaba,
+        // igual que haría insert (los iguales se colocan a la derecha)
+        List<Book> merged = new ArrayList<>(catalogoLibros.size() + nuevos.size());
+        int i = 0;
+        for (Book existente : catalogoLibros) {
+            while (i < nuevos.size() && orden.compare(nuevos.get(i), existente) < 0) {
+                merged.add(nuevos.get(i++));
+            }
+            merged.add(existente);
+        }
+        while (i < nuevos.size()) {
+            merged.add(nuevos.get(i++));
+        }
+        catalogoLibros = RedBlackTree.buildFromSorted(merged, orden);
+
+        Map<String, String> categorias = new HashMap<>();
+        for (Book book : nuevos) {
+            librosPorId.put(book.getId(), book);
+            if (book.getCategoria() != null) {
+                categorias.putIfAbsent(book.getCategoria().trim().toLowerCase(), book.getCategoria());
+            }
+        }
+        for (String categoria : categorias.values()) {
+            registerCategoryRoom(categoria);
+        }
+        return nuevos.size();
+    }
+
+    // Crea la sala de chat de la categoría si todavía no existe
+    private void registerCategoryRoom(String categoria) {
+        if (categoria != null && !categoria.trim().isEmpty()) {
+            String category = categoria.trim();
+            String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
+
+            chatMessagesByRoom.putIfAbsent(formattedCategory, new DoubleList<>());
+            // Actualizar chatRoomNames si esta categoría es nueva
+            boolean existsInKnownNames = false;
+            for(int i=0; i < this.chatRoomNames.size(); i++){
+                if(this.chatRoomNames.get(i).equalsIgnoreCase(formattedCategory)){
+                    existsInKnownNames = true;
+                    break;
+                }
+            }
+            if(!existsInKnownNames){
+                this.chatRoomNames.addLast(formattedCategory);
+            }
+        }
+    }
+
+    /**
+     * @return la primera edición disponible con ese título (la de menor id), o null si no hay ninguna.
+     */
+    public Book findBookByTitle(String title) {
+        DoubleList<Book> ediciones = findBooksByTitle(title);
+        return ediciones.isEmpty() ? null : ediciones.peekFirst();
+    }
+
+    /**
+     * Busca todas las ediciones disponibles con el título dado (sin distinguir mayúsculas).
+     * El catálogo está ordenado por título y luego por id, así que los libros con el mismo
+     * título son consecutivos: se salta al primero en O(log n) y se recorre solo ese tramo,
+     * parando en el primer libro con otro título.
+     * @param title el título buscado.
+     * @return los libros disponibles con ese título, ordenados por id.
+     */
+    public DoubleList<Book> findBooksByTitle(String title) {
+        DoubleList<Book> result = new DoubleList<>();
+        if (title == null) {
+            return result;
+        }
+        DoubleList<Book> ediciones = catalogoLibros.prefixScan(titleKey(title), libro -> libro.getTitulo().equalsIgnoreCase(title));
+        for (Book libro : ediciones) {
+            if (libro.isAvailable()) {
+                result.addLast(libro);
+            }
+        }
+        return result;
+    }
+
+    // Libro sonda que ordena antes que cualquier libro con ese título (id vacío), para búsquedas en el árbol
+    private static Book titleKey(String title) {
+        Book key = new Book();
+        key.setId("");
+        key.setTitulo(title);
+        return key;
+    }
+    
+    /**
+     * Busca los libros disponibles cuyo título empieza por el prefijo dado (sin distinguir mayúsculas).
+     * Recorre solo el tramo del árbol que comparte el prefijo, sin copiar el catálogo.
+     * @param prefix el prefijo del título.
+     * @return los libros encontrados, ordenados por título.
+     */
+    public DoubleList<Book> findBooksByTitlePrefix(String prefix) {
+        DoubleList<Book> result = new DoubleList<>();
+        if (prefix == null || prefix.isEmpty()) {
+            return result;
+        }
+        DoubleList<Book> matches = catalogoLibros.prefixScan(titleKey(prefix),
+                libro -> libro.getTitulo().regionMatches(true, 0, prefix, 0, prefix.length()));
+        for (Book libro : matches) {
+            if (libro.isAvailable()) {
+                result.addLast(libro);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Devuelve una página del catálogo completo (incluye libros no disponibles), ordenado por título.
+     * Salta directamente a la página con el árbol de estadísticos de orden, sin recorrer las anteriores.
+     * @param page número de página, empezando en 0.
+     * @param pageSize número de libros por página.
+     * @return los libros de la página; vacía si la página no existe.
+     */
+    public DoubleList<Book> getCatalogPage(int page, int pageSize) {
+        if (page < 0 || pageSize <= 0 || (long) page * pageSize > Integer.MAX_VALUE) {
+            return new DoubleList<>();
+        }
+        return catalogoLibros.slice(page * pageSize, pageSize);
+    }
+
+    public int getCatalogSize() {
+        return catalogoLibros.size();
+    }
+
+    public Book findBookById(String bookId) {
+        Book libro = findCatalogBookById(bookId);
+        if (libro != null && libro.isAvailable()) {
+            return libro;
+        }
+        return null;
+    }
+
+    /**
+     * Busca un libro del catálogo por su ID sin importar su disponibilidad.
+     * @param bookId el ID del libro.
+     * @return el libro, o null si el ID no existe en el catálogo.
+     */
+    public Book findCatalogBookById(String bookId) {
+        if (bookId == null) {
+            return null;
+        }
+        return librosPorId.get(bookId);
+    }
+
+    /**
+     * Reconstruye el índice id -> Book a partir del catálogo.
+     * Se invoca tras deserializar la biblioteca, ya que el índice no se persiste.
+     */
+    private void rebuildBookIndex() {
+        librosPorId = new HashMap<>();
+        if (catalogoLibros == null) {
+            return;
+        }
+        for (Book libro : catalogoLibros) {
+            if (libro != null && libro.getId() != null) {
+                librosPorId.put(libro.getId(), libro);
+            }
+        }
+    }
+
+    /**
+     * Reconstruye los índices invertidos de valoraciones e historial de préstamos a partir de los usuarios.
+     * Se invoca tras deserializar la biblioteca, ya que los índices no se persisten.
+     */
+    private void rebuildReadingIndexes() {
+        indiceValoraciones = new InvertedIndex<>();
+        indicePrestamos = new InvertedIndex<>();
+        if (usuarios == null) {
+            return;
+        }
+        for (User u : usuarios) {
+            for (Rating rating : u.getLibrosValorados()) {
+                indiceValoraciones.add(u, rating.getLibro());
+            }
+            for (Loan prestamo : u.getHistorialPrestamos()) {
+                indicePrestamos.add(u, prestamo.getLibro());
+            }
+        }
+    }
+
+    /**
+     * Los datos guardados antes de separar las afinidades por préstamos no las traen: se reconstruyen a partir
+     * del índice de préstamos, conectando a cada lector con los demás lectores de los libros de su historial.
+     */
+    private void rebuildLoanAffinities() {
+        afinidadesPorPrestamo = new Graph<>();
+        if (usuarios == null) {
+            return;
+        }
+        for (User u : usuarios) {
+            afinidadesPorPrestamo.addVertex(u);
+        }
+        for (User u : usuarios) {
+            for (Loan prestamo : u.getHistorialPrestamos()) {
+                PostingList lectores = indicePrestamos.leftsOf(prestamo.getLibro());
+                List<User> vecinos = new ArrayList<>(lectores.size());
+                for (int i = 0; i < lectores.size(); i++) {
+                    vecinos.add(indicePrestamos.left(lectores.get(i)));
+                }
+                afinidadesPorPrestamo.addEdges(u, vecinos);
+            }
+        }
+    }
+
+    /**
+     * Los catálogos guardados con versiones anteriores se ordenaban solo por título (compareTo),
+     * lo que no admite bien títulos repetidos. Si el árbol cargado no tiene comparador,
+     * se reconstruye con el orden título + id.
+     */
+    private void ensureCatalogOrder() {
+        if (catalogoLibros == null) {
+            catalogoLibros = new RedBlackTree<>(Book.POR_TITULO_E_ID);
+            return;
+        }
+        if (catalogoLibros.comparator() != null) {
+            return;
+        }
+        List<Book> libros = new ArrayList<>(catalogoLibros.size());
+        for (Book libro : catalogoLibros) {
+            libros.add(libro);
+        }
+        libros.sort(Book.POR_TITULO_E_ID);
+        catalogoLibros = RedBlackTree.buildFromSorted(libros, Book.POR_TITULO_E_ID);
+    }
+
+    // --- Gestión de Usuarios ---
+    public synchronized void registerUser(User user) {
+        if (user != null && findUserByUsername(user.getUsername()) == null) {
+            usuarios.addLast(user);
+            usuariosPorUsername.put(user.getUsername(), user);
+            synchronized (afinidadLock) {
+                redAfinidad.addVertex(user);
+            }
+        }
+    }
+
+    public User findUserByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        return usuariosPorUsername.get(username);
+    }
+
+    /**
+     * Reconstruye el índice username -> User a partir de la lista de usuarios.
+     * Se invoca tras deserializar la biblioteca, ya que el índice no se persiste.
+     */
+    private void rebuildUserIndex() {
+        usuariosPorUsername = new HashMap<>();
+        if (usuarios == null) {
+            return;
+        }
+        for (User u : usuarios) {
+            if (u != null && u.getUsername() != null) {
+                usuariosPorUsername.put(u.getUsername(), u);
+            }
+        }
+    }
+    
+    public User login(String username, String password) {
+        User user = findUserByUsername(username);
+        if (user != null && user.getPassword().equals(password)) {
+            return user;
+        }
+        return null;
+    }
+
+    // --- Gestión de Préstamos ---
+    public synchronized String requestLoan(String username, String bookId) {
+        User user = findUserByUsername(username);
+        Book book = findBookById(bookId);
+
+        if (user == null) {
+            return "Usuario no encontrado.";
+        }
+        if (book == null) {
+            return "Libro no encontrado o no disponible.";
+        }
+        if (!book.isAvailable()) {
+            return "El libro '" + book.getTitulo() + "' no está disponible actualmente.";
+        }
+
+        for (int i = 0; i < prestamosActivos.size(); i++) {
+            Loan activeLoan = prestamosActivos.get(i);
+            if (activeLoan.getUsuario().equals(user) && activeLoan.getLibro().equals(book)) {
+                return "Ya tienes este libro prestado.";
+            }
+        }
+        if (solicitudesPendientes.containsKey(pendingKey(book.getId(), username))) {
+            return "Ya estás en la lista de espera del libro '" + book.getTitulo() + "'.";
+        }
+        
+        if (book.hayEjemplaresDisponibles()) {
+            book.prestarEjemplar(); 
+            LocalDate fechaSolicitud = LocalDate.now();
+            LocalDate fechaDevolucionPrevista = fechaSolicitud.plusWeeks(2);
+            Loan newLoan = new Loan(user, book, fechaSolicitud.format(DATE_FORMATTER), fechaDevolucionPrevista.format(DATE_FORMATTER));
+            prestamosActivos.addLast(newLoan);
+            return "Préstamo exitoso para el libro: " + book.getTitulo();
+        } else {
+            LoanRequest request = new LoanRequest(user, book);
+            enqueueLoanRequest(request);
+            
+            // Buscar la fecha de devolución más próxima para este libro
+            String proximaDevolucionStr = "No hay información de próxima devolución.";
+            LocalDate proximaDevolucion = null;
+
+            for (int i = 0; i < prestamosActivos.size(); i++) {
+                Loan currentLoan = prestamosActivos.get(i);
+                if (currentLoan.getLibro().equals(book)) {
+                    try {
+                        LocalDate fechaDevPrev = LocalDate.parse(currentLoan.getFechaDevolucionPrevista(), DATE_FORMATTER);
+                        if (proximaDevolucion == null || fechaDevPrev.isBefore(proximaDevolucion)) {
+                            proximaDevolucion = fechaDevPrev;
+                        }
+                    } catch (Exception e) {
+                        // Ignorar si la fecha no se puede parsear, aunque no debería pasar
+                        System.err.println("Error parseando fecha de devolución prevista: " + currentLoan.getFechaDevolucionPrevista());
+                    }
+                }
+            }
+
+            if (proximaDevolucion != null) {
+                proximaDevolucionStr = "Se espera un ejemplar para el: " + proximaDevolucion.format(DATE_FORMATTER) + ".";
+            }
+
+            return "Libro '" + book.getTitulo() + "' no disponible. Añadido a lista de espera. " + proximaDevolucionStr;
+        }
+    }
+
+    public synchronized String returnLoan(String username, String bookId) {
+        User user = findUserByUsername(username);
+        Book book = findBookById(bookId);
+
+        if (user == null) {
+            return "Usuario no encontrado.";
+        }
+        if (book == null) {
+            return "Libro no encontrado o no disponible.";
+        }
+        if (!book.isAvailable()) {
+            return "El libro '" + book.getTitulo() + "' no está disponible actualmente.";
+        }
+
+        Loan loanToRemove = null;
+        int loanIndex = -1; 
+        for (int i = 0; i < prestamosActivos.size(); i++) {
+            Loan currentLoan = prestamosActivos.get(i);
+            if (currentLoan.getUsuario().equals(user) && currentLoan.getLibro().equals(book) && !currentLoan.isDevuelto()) { 
+                loanToRemove = currentLoan;
+                loanIndex = i;
+                break;
+            }
+        }
+
+        if (loanToRemove != null) {
+            if (loanIndex != -1) {
+                 prestamosActivos.removeAtIndex(loanIndex); 
+            } else {
+                // Esto no debería pasar si loanToRemove no es null y se encontró
+                return "Error interno: No se pudo determinar el índice del préstamo a remover.";
+            }
+            
+            // Marcar como devuelto y añadir al historial del usuario
+            loanToRemove.setDevuelto(true);
+            loanToRemove.setFechaDevolucionReal(LocalDate.now().format(DATE_FORMATTER)); // Registrar fecha de devolución real
+            user.getHistorialPrestamos().addLast(loanToRemove); // <-- AÑADIR ESTO
+            indicePrestamos.add(user, book);
+            
+            book.devolverEjemplar(); 
+            updateAffinityNetwork(user, book); // Ahora el historial estará actualizado para esta lógica
+            processWaitlistForBook(book);
+            return "Libro '" + book.getTitulo() + "' devuelto exitosamente.";
+        } else {
+            return "No se encontró un préstamo activo para este usuario y libro.";
+        }
+    }
+
+    public synchronized String valorarLibro(String username, String bookId, int puntuacion, String comentario) {
+        User user = findUserByUsername(username);
+        if (user == null) {
+            return "Error: Usuario '" + username + "' no encontrado.";
+        }
+        if (user.getTipoUsuario() != TipoUsuario.LECTOR) {
+            return "Error: Solo los usuarios de tipo LECTOR pueden valorar libros.";
+        }
+
+        Book book = findBookById(bookId);
+        if (book == null || !book.isAvailable()) {
+            return "Error: Libro con ID '" + bookId + "' no encontrado o no disponible.";
+        }
+
+        // Verificar si el usuario ha prestado el libro alguna vez (búsqueda binaria en su lista del índice)
+        if (!indicePrestamos.contains(user, book)) {
+            return "Error: Debes haber tomado prestado el libro '" + book.getTitulo() + "' para poder valorarlo.";
+        }
+
+        Rating ratingExistente = null;
+        for (int i = 0; i < user.getLibrosValorados().size(); i++) {
+            Rating r = user.getLibrosValorados().get(i);
+            if (r.getLibro().getId().equals(bookId)) {
+                ratingExistente = r;
+                break;
+            }
+        }
+
+        String resultado;
+        Integer puntuacionAnterior = null;
+        if (ratingExistente != null) {
+            puntuacionAnterior = ratingExistente.getPuntuacion();
+            ratingExistente.setPuntuacion(puntuacion);
+            ratingExistente.setComentario(comentario);
+            ratingExistente.setFechaValoracion(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+            resultado = "Has actualizado tu valoración para el libro '" + book.getTitulo() + "'.";
+        } else {
+            Rating nuevoRating = new Rating(user, book, puntuacion, comentario, LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+            user.getLibrosValorados().addLast(nuevoRating);
+            book.getRatings().addLast(nuevoRating);
+            indiceValoraciones.add(user, book);
+            resultado = "Libro '" + book.getTitulo() + "' valorado exitosamente con " + puntuacion + " estrellas.";
+        }
+
+        book.recalculateCalificacionPromedio();
+        // Las afinidades y el guardado se hacen en segundo plano (ver flushAffinityUpdates). Si el libro ya tenía
+        // una valoración pendiente de este usuario se conserva su puntuación anterior: es la que refleja la red
+        valoracionesPendientes.putIfAbsent(pendingKey(bookId, username), new ValoracionPendiente(user, book, puntuacionAnterior));
+        affinityWorker().eventoRegistrado();
+        return resultado;
+    }
+
+    // Valoración registrada cuyas afinidades todavía no se han actualizado
+    private static final class ValoracionPendiente {
+        final User user;
+        final Book book;
+        final Integer puntuacionAnterior;
+
+        ValoracionPendiente(User user, Book book, Integer puntuacionAnterior) {
+            this.user = user;
+            this.book = book;
+            this.puntuacionAnterior = puntuacionAnterior;
+        }
+    }
+
+    private synchronized AffinityMaintenanceWorker affinityWorker() {
+        if (afinidadWorker == null) {
+            // Se agrupan las valoraciones de 2 s sin actividad, con un máximo de 50 eventos o 10 s de retraso
+            afinidadWorker = new AffinityMaintenanceWorker(this::flushAffinityUpdates, 2000, 10000, 50);
+        }
+        return afinidadWorker;
+    }
+
+    /**
+     * Aplica las afinidades de todas las valoraciones pendientes, publica la nueva instantánea de la red
+     * y guarda los datos una sola vez. La llama el hilo de mantenimiento de afinidades; también puede
+     * llamarse directamente (p. ej. antes de cerrar) para no esperar a ese hilo.
+     * Bajo el monitor solo se recogen las valoraciones pendientes y una copia de las puntuaciones que
+     * necesitan; las comparaciones se hacen sin cerrojos y el grafo se bloquea solo para aplicar el resultado.
+     */
+    public void flushAffinityUpdates() {
+        synchronized (mantenimientoLock) {
+            LoteAfinidades lote;
+            synchronized (this) {
+                if (valoracionesPendientes.isEmpty()) {
+                    return;
+                }
+                lote = copyAffinityBatch(valoracionesPendientes.values());
+                valoracionesPendientes = new LinkedHashMap<>(); // Las valoraciones siguientes van al próximo lote
+            }
+            applyAffinityBatch(lote);
+        }
+        saveData(DATA_FILE_PATH);
+    }
+
+    public synchronized void processWaitlistForBook(Book book) {
+        if (book == null) return;
+
+        // Solo se mira la cola de este libro: las solicitudes de otros libros no lo bloquean
+        ColaPrioridadIndexada<LoanRequest> cola = listasEsperaPorLibro.get(book.getId());
+        if (cola == null) return;
+
+        // Se atienden de una vez tantas solicitudes como ejemplares libres haya
+        List<LoanRequest> atendidas = new ArrayList<>();
+        cola.drainTo(atendidas, book.getEjemplaresDisponibles());
+        LocalDate fechaSolicitud = LocalDate.now();
+        String fechaPrestamo = fechaSolicitud.format(DATE_FORMATTER);
+        String fechaDevolucionPrevista = fechaSolicitud.plusWeeks(2).format(DATE_FORMATTER);
+        for (LoanRequest nextRequest : atendidas) {
+            solicitudesPendientes.remove(pendingKey(book.getId(), nextRequest.getUser().getUsername()));
+
+            book.prestarEjemplar();
+            Loan newLoan = new Loan(nextRequest.getUser(), nextRequest.getBook(), fechaPrestamo, fechaDevolucionPrevista);
+            prestamosActivos.addLast(newLoan);
+        }
+        if (cola.isEmpty()) {
+            listasEsperaPorLibro.remove(book.getId());
+        }
+    }
+
+    // Añade la solicitud a la cola de su libro, O(log k) con k las solicitudes de ese libro
+    private void enqueueLoanRequest(LoanRequest request) {
+        String bookId = request.getBook().getId();
+        ColaPrioridadIndexada.Handle<LoanRequest> handle =
+                listasEsperaPorLibro.computeIfAbsent(bookId, id -> new ColaPrioridadIndexada<>()).add(request);
+        solicitudesPendientes.put(pendingKey(bookId, request.getUser().getUsername()), handle);
+    }
+
+    private static String pendingKey(String bookId, String username) {
+        return bookId + "|" + username;
+    }
+
+    /**
+     * Retira a un usuario de la lista de espera de un libro, en O(log k) gracias al Handle
+     * guardado al encolar la solicitud (sin vaciar ni reconstruir la cola).
+     * @return mensaje con el resultado de la operación.
+     */
+    public synchronized String cancelLoanRequest(String username, String bookId) {
+        ColaPrioridadIndexada.Handle<LoanRequest> handle = solicitudesPendientes.remove(pendingKey(bookId, username));
+        if (handle == null) {
+            return "No tienes una solicitud en lista de espera para este libro.";
+        }
+        ColaPrioridadIndexada<LoanRequest> cola = listasEsperaPorLibro.get(bookId);
+        cola.remove(handle);
+        if (cola.isEmpty()) {
+            listasEsperaPorLibro.remove(bookId);
+        }
+        return "Solicitud de préstamo del libro '" + handle.getElemento().getBook().getTitulo() + "' cancelada.";
+    }
+
+    /**
+     * @param bookId id del libro.
+     * @return true si el libro tiene solicitudes en lista de espera. O(1).
+     */
+    public boolean hasWaitlist(String bookId) {
+        return bookId != null && listasEsperaPorLibro.containsKey(bookId);
+    }
+
+    /**
+     * Pasa las solicitudes de la lista de espera global (formato anterior) a las colas por libro.
+     * Se invoca al cargar los datos; la cola global queda vacía.
+     */
+    private void migrateWaitlist() {
+        if (listasEsperaPorLibro == null) {
+            listasEsperaPorLibro = new HashMap<>();
+        }
+        // Los Handles se persisten dentro de cada cola; el índice por clave se reconstruye
+        solicitudesPendientes = new HashMap<>();
+        for (Map.Entry<String, ColaPrioridadIndexada<LoanRequest>> entry : listasEsperaPorLibro.entrySet()) {
+            for (ColaPrioridadIndexada.Handle<LoanRequest> handle : entry.getValue().handles()) {
+                solicitudesPendientes.put(pendingKey(entry.getKey(), handle.getElemento().getUser().getUsername()), handle);
+            }
+        }
+        if (waitlist == null) {
+            waitlist = new ColaPrioridad<>();
+            return;
+        }
+        while (!waitlist.isEmpty()) {
+            LoanRequest request = waitlist.poll();
+            if (request.getBook() != null && request.getUser() != null) {
+                enqueueLoanRequest(request);
+            }
+        }
+    }
+
+    // --- Red de Afinidad ---
+    /**
+     * Conecta a user1 con todos los que ya leyeron commonBook. Los lectores salen de la lista del libro en el
+     * índice de préstamos, así que el coste depende de cuántos lo leyeron y no del total de préstamos,
+     * y las aristas se añaden de una vez con {@link Graph#addEdges}.
+     */
+    public synchronized void updateAffinityNetwork(User user1, Book commonBook) {
+        PostingList lectores = indicePrestamos.leftsOf(commonBook);
+        List<User> vecinos = new ArrayList<>(lectores.size());
+        for (int i = 0; i < lectores.size(); i++) {
+            User user2 = indicePrestamos.left(lectores.get(i));
+            if (!user1.equals(user2)) {
+                vecinos.add(user2);
+            }
+        }
+        synchronized (afinidadLock) {
+            afinidadesPorPrestamo.addVertex(user1);
+            for (User vecino : vecinos) {
+                afinidadesPorPrestamo.addVertex(vecino);
+            }
+            afinidadesPorPrestamo.addEdges(user1, vecinos);
+            redAfinidad.addEdges(user1, vecinos);
+        }
+    }
+
+    public DoubleList<User> getFriendSuggestions(String username) {
+        User user = findUserByUsername(username);
+        if (user == null) {
+            return new DoubleList<>();
+        }
+        DoubleList<User> neighborsList = new DoubleList<>();
+        CsrGraph<User> red = getAffinitySnapshot();
+        int id = red.idOf(user);
+        if (id >= 0) {
+            for (int e = red.edgeStart(id); e < red.edgeEnd(id); e++) {
+                neighborsList.addLast(red.vertex(red.target(e)));
+            }
+        }
+        return neighborsList;
+    }
+
+    public DoubleList<User> findShortestPathAffinity(String username1, String username2) {
+        return findShortestPathAffinity(username1, username2, Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Busca el camino más corto de afinidad entre dos usuarios sobre la instantánea CSR de la red,
+     * en O(V + E) como máximo.
+     * @param maxDepth número máximo de saltos del camino; corta la búsqueda en redes grandes.
+     * @param bidireccional si es true se busca a la vez desde los dos usuarios, lo que explora
+     *                      muchos menos vértices cuando la red es grande.
+     * @return los usuarios del camino (de username1 a username2), o una lista vacía si no hay
+     *         camino de como mucho maxDepth saltos.
+     */
+    public DoubleList<User> findShortestPathAffinity(String username1, String username2, int maxDepth, boolean bidireccional) {
+        DoubleList<User> shortestPath = new DoubleList<>();
+        User startUser = findUserByUsername(username1);
+        User endUser = findUserByUsername(username2);
+
+        if (startUser == null || endUser == null) {
+            return shortestPath;
+        }
+        CsrGraph<User> red = getAffinitySnapshot();
+        int start = red.idOf(startUser);
+        int end = red.idOf(endUser);
+        if (start < 0 || end < 0) {
+            return shortestPath; // Alguno de los dos no está en la red
+        }
+        if (!red.isConnected(start, end)) {
+            return shortestPath; // Están en comunidades distintas: no hace falta buscar
+        }
+
+        int[] path = bidireccional ? red.shortestPathBidirectional(start, end, maxDepth) : red.shortestPath(start, end, maxDepth);
+        for (int id : path) {
+            shortestPath.addLast(red.vertex(id));
+        }
+        return shortestPath;
+    }
+
+    /**
+     * Grados de separación desde un usuario: en una sola BFS sobre la instantánea CSR obtiene el número
+     * de saltos hasta cada usuario alcanzable.
+     * @param maxDepth número máximo de saltos; los usuarios más lejanos no aparecen.
+     * @return username -> saltos, en orden de distancia creciente (el propio usuario con 0),
+     *         o un mapa vacío si el usuario no existe.
+     */
+    public Map<String, Integer> distancesFrom(String username, int maxDepth) {
+        User user = findUserByUsername(username);
+        if (user == null) {
+            return new LinkedHashMap<>();
+        }
+        return distancesFrom(Collections.singletonList(user), maxDepth);
+    }
+
+    /**
+     * Distancia de cada usuario al usuario más cercano del tipo dado (p. ej. "a qué distancia está
+     * del administrador más próximo"), con una única BFS que parte de todos ellos a la vez.
+     * @return username -> saltos hasta el usuario de ese tipo más cercano, en orden de distancia creciente.
+     */
+    public Map<String, Integer> distancesFromType(TipoUsuario tipo, int maxDepth) {
+        List<User> origenes = new ArrayList<>();
+        for (User user : usuarios) {
+            if (user.getTipoUsuario() == tipo) {
+                origenes.add(user);
+            }
+        }
+        return distancesFrom(origenes, maxDepth);
+    }
+
+    private Map<String, Integer> distancesFrom(List<User> origenes, int maxDepth) {
+        Map<String, Integer> distancias = new LinkedHashMap<>();
+        CsrGraph<User> red = getAffinitySnapshot();
+        int[] sources = new int[origenes.size()];
+        int count = 0;
+        for (User origen : origenes) {
+            int id = red.idOf(origen);
+            if (id >= 0) {
+                sources[count++] = id;
+            }
+        }
+        if (count == 0) {
+            return distancias; // Ningún origen está en la red
+        }
+        red.distancesFrom(Arrays.copyOf(sources, count), maxDepth,
+                (id, distance) -> distancias.put(red.vertex(id).getUsername(), distance));
+        return distancias;
+    }
+
+    // --- Sistema de Recomendaciones ---
+    public DoubleList<Book> getBookRecommendations(String username) {
+        User user = findUserByUsername(username);
+        if (user == null) {
+            return new DoubleList<>();
+        }
+
+        TopK<Book> recommendations = new TopK<>(5, POR_CALIFICACION_DESC); // Solo se guardan los 5 mejores
+        DoubleList<Rating> userRatings = user.getLibrosValorados();
+
+        if (userRatings.isEmpty()) {
+            return getTopRatedBooksNotRatedByUserOrRead(user, 5);
+        }
+
+        DoubleList<String> favoriteCategories = new DoubleList<>();
+        DoubleList<String> favoriteAuthors = new DoubleList<>();
+
+        for (int i = 0; i < userRatings.size(); i++) {
+            Rating rating = userRatings.get(i);
+            if (rating.getPuntuacion() >= 3) { 
+                Book ratedBook = rating.getLibro();
+                if (ratedBook == null) continue;
+                
+                boolean catExists = false;
+                for(int j=0; j<favoriteCategories.size(); j++){
+                    if(favoriteCategories.get(j).equalsIgnoreCase(ratedBook.getCategoria())){ catExists = true; break; }
+                }
+                if(!catExists) favoriteCategories.addLast(ratedBook.getCategoria());
+
+                boolean authorExists = false;
+                for(int j=0; j<favoriteAuthors.size(); j++){
+                    if(favoriteAuthors.get(j).equalsIgnoreCase(ratedBook.getAutor())){ authorExists = true; break; }
+                }
+                if(!authorExists) favoriteAuthors.addLast(ratedBook.getAutor());
+            }
+        }
+
+        if (favoriteCategories.isEmpty() && favoriteAuthors.isEmpty()) {
+            return getTopRatedBooksNotRatedByUserOrRead(user, 5);
+        }
+
+        for (Book potentialRecommendation : catalogoLibros) {
+            if (potentialRecommendation == null || !potentialRecommendation.isAvailable()) continue;
+
+            boolean matchesCategory = false;
+            for(int j=0; j<favoriteCategories.size(); j++){
+                if(potentialRecommendation.getCategoria().equalsIgnoreCase(favoriteCategories.get(j))){
+                    matchesCategory = true; break;
+                }
+            }
+
+            boolean matchesAuthor = false;
+             for(int j=0; j<favoriteAuthors.size(); j++){
+                if(potentialRecommendation.getAutor().equalsIgnoreCase(favoriteAuthors.get(j))){
+                    matchesAuthor = true; break;
+                }
+            }
+
+            if (matchesCategory || matchesAuthor) {
+                recommendations.offer(potentialRecommendation);
+            }
+        }
+
+        DoubleList<Book> finalRecommendations = recommendations.drainOrdered();
+
+        if (finalRecommendations.isEmpty()){
+            return getTopRatedBooksNotRatedByUserOrRead(user, 5);
+        }
+        return finalRecommendations;
+    }
+
+    // Método auxiliar modificado para obtener los N libros mejor valorados que el usuario NO HA VALORADO NI LEÍDO
+    private DoubleList<Book> getTopRatedBooksNotRatedByUserOrRead(User user, int count) {
+        TopK<Book> candidateBooks = new TopK<>(Math.max(count, 0), POR_CALIFICACION_DESC);
+        for (Book currentBook : catalogoLibros) {
+            if (currentBook == null || !currentBook.isAvailable()) continue;
+            boolean exclude = false;
+            // Se excluyen los libros que ya valoró o leyó (consultas O(log n) en los índices)
+            if(indiceValoraciones.contains(user, currentBook) || indicePrestamos.contains(user, currentBook)){
+                 exclude = true;
+            }
+            if(!exclude) {
+                candidateBooks.offer(currentBook);
+            }
+        }
+
+        return candidateBooks.drainOrdered();
+    }
+
+    // Getters para las colecciones internas (útil para la GUI o pruebas)
+    public RedBlackTree<Book> getCatalogoLibros() {
+        return catalogoLibros;
+    }
+
+    public DoubleList<User> getUsuarios() {
+        return usuarios;
+    }
+
+    public DoubleList<Loan> getPrestamosActivos() {
+        return prestamosActivos;
+    }
+
+    /**
+     * @return una copia con todas las solicitudes en espera, de todos los libros, por orden de llegada.
+     */
+    public ColaPrioridad<LoanRequest> getWaitlist() {
+        List<LoanRequest> todas = new ArrayList<>(solicitudesPendientes.size());
+        for (ColaPrioridadIndexada.Handle<LoanRequest> handle : solicitudesPendientes.values()) {
+            todas.add(handle.getElemento());
+        }
+        return new ColaPrioridad<>(todas); // Heapify en O(n)
+    }
+
+    /**
+     * Devuelve una instantánea CSR (inmutable) de la red de afinidad para consultas de solo lectura.
+     * Se reutiliza mientras el grafo no cambie y se reconstruye en O(V + E) cuando cambia; la reconstrucción
+     * bloquea solo el grafo, nunca el monitor de la biblioteca.
+     */
+    public CsrGraph<User> getAffinitySnapshot() {
+        CsrGraph<User> snapshot = redAfinidadCsr;
+        if (snapshot != null && snapshot.isCurrent(redAfinidad)) {
+            return snapshot; // Caso habitual: sin tomar ningún cerrojo
+        }
+        synchronized (afinidadLock) {
+            if (redAfinidadCsr == null || !redAfinidadCsr.isCurrent(redAfinidad)) {
+                redAfinidadCsr = CsrGraph.of(redAfinidad);
+            }
+            return redAfinidadCsr;
+        }
+    }
+
+    // --- Métodos para Administrador ---
+
+    public synchronized String deleteBook(String bookId) {
+        Book bookToDelete = findBookById(bookId);
+        if (bookToDelete == null) {
+            return "Error: Libro con ID " + bookId + " no encontrado en el catálogo.";
+        }
+
+        // Verificar si el libro está en préstamos activos
+        for (int i = 0; i < prestamosActivos.size(); i++) {
+            if (prestamosActivos.get(i).getLibro().equals(bookToDelete)) {
+                return "Error: El libro '" + bookToDelete.getTitulo() + "' tiene préstamos activos y no puede ser marcado como no disponible.";
+            }
+        }
+
+        // Verificar si el libro está en la lista de espera
+        if (hasWaitlist(bookToDelete.getId())) {
+            return "Error: El libro '" + bookToDelete.getTitulo() + "' está en la lista de espera y no puede ser marcado como no disponible.";
+        }
+
+        // Marcar el libro como no disponible
+        bookToDelete.setAvailable(false);
+        return "Libro '" + bookToDelete.getTitulo() + "' marcado como no disponible.";
+    }
+
+    /**
+     * Compacta el catálogo: elimina del árbol, del índice por ID y de los índices de valoraciones y préstamos
+     * los libros marcados como no disponibles. deleteBook solo marca los libros como no disponibles para que el
+     * administrador pueda reactivarlos; este método los elimina definitivamente para que dejen de recorrerse en
+     * búsquedas y recomendaciones. Las valoraciones de los libros eliminados dejan de contar para las afinidades,
+     * así que si alguno tenía valoraciones se recalculan. El recálculo y el guardado se hacen fuera del monitor.
+     * @return el número de libros eliminados del catálogo.
+     */
+    public int purgeUnavailableBooks() {
+        DoubleList<Book> retirados;
+        boolean conValoraciones = false;
+        synchronized (this) {
+            retirados = catalogoLibros.removeIf(libro -> !libro.isAvailable());
+            for (Book libro : retirados) {
+                librosPorId.remove(libro.getId());
+                conValoraciones |= !indiceValoraciones.leftsOf(libro).isEmpty();
+                indiceValoraciones.removeRight(libro);
+                indicePrestamos.removeRight(libro);
+            }
+        }
+        if (conValoraciones) {
+            recalculateAffinitiesBasedOnRatings(); // También guarda los datos
+        } else if (!retirados.isEmpty()) {
+            saveData(DATA_FILE_PATH);
+        }
+        return retirados.size();
+    }
+
+    // Un libro sigue en el catálogo mientras no se purgue (los no disponibles también cuentan). Se llama bajo el monitor
+    private boolean enCatalogo(Book libro) {
+        return libro != null && librosPorId.containsKey(libro.getId());
+    }
+
+    public java.util.Map<String, Integer> getLoanCountsPerUser() {
+        java.util.Map<String, Integer> loanCounts = new java.util.HashMap<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            User user = usuarios.get(i);
+            int count = 0;
+            // Contar préstamos activos
+            for (int j = 0; j < prestamosActivos.size(); j++) {
+                if (prestamosActivos.get(j).getUsuario().equals(user)) {
+                    count++;
+                }
+            }
+            // Contar préstamos en el historial
+            if (user.getHistorialPrestamos() != null) {
+                count += user.getHistorialPrestamos().size();
+            }
+            loanCounts.put(user.getUsername(), count);
+        }
+        return loanCounts;
+    }
+
+    public DoubleList<Book> getMostRatedBooks(int count) {
+        // Los count libros con mejor calificación promedio (descendente), en O(n log count)
+        TopK<Book> topBooks = new TopK<>(Math.max(count, 0), POR_CALIFICACION_DESC);
+        for (Book book : catalogoLibros) {
+            if(book.isAvailable()){ // Considerar solo libros disponibles
+                topBooks.offer(book);
+            }
+        }
+        return topBooks.drainOrdered();
+    }
+
+    public java.util.Map<String, Integer> getUsersWithMostConnections(int count) {
+        if (redAfinidad == null || usuarios.isEmpty()) { 
+            return new java.util.LinkedHashMap<>(); // Grafo vacío o no inicializado, o no hay usuarios
+        }
+
+        CsrGraph<User> red = getAffinitySnapshot();
+        // Los count usuarios con más conexiones (descendente), sin ordenar a todos
+        TopK<User> seleccion = new TopK<>(Math.max(count, 0), Comparator.comparingInt((User user) -> {
+            int id = red.idOf(user);
+            return id >= 0 ? red.degree(id) : 0;
+        }).reversed());
+        for (int i = 0; i < usuarios.size(); i++) {
+            seleccion.offer(usuarios.get(i));
+        }
+
+        java.util.Map<String, Integer> topUsers = new java.util.LinkedHashMap<>(); // Para mantener el orden de inserción
+        for (User user : seleccion.drainOrdered()) {
+            int id = red.idOf(user);
+            topUsers.put(user.getUsername(), id >= 0 ? red.degree(id) : 0);
+        }
+        return topUsers;
+    }
+
+    /**
+     * @return el tamaño de cada comunidad (componente conexa) de la red de afinidad, de mayor a menor.
+     *         Un lector sin conexiones forma una comunidad de tamaño 1.
+     */
+    public List<Integer> getAffinityCommunitySizes() {
+        return getAffinitySnapshot().getComponentSizes();
+    }
+
+    public synchronized String deleteUser(String usernameToDelete) {
+        User userToDelete = findUserByUsername(usernameToDelete);
+
+        if (userToDelete == null) {
+            return "Error: Usuario '" + usernameToDelete + "' no encontrado.";
+        }
+
+        // Opcional: Impedir que un admin se elimine a sí mismo si está logueado
+        // if (currentUserLoggedIn != null && currentUserLoggedIn.equals(userToDelete) && currentUserLoggedIn.getTipoUsuario() == TipoUsuario.ADMINISTRADOR) {
+        //     return "Error: Un administrador no puede eliminarse a sí mismo.";
+        // }
+
+        // 1. Verificar préstamos activos
+        for (int i = 0; i < prestamosActivos.size(); i++) {
+            Loan loan = prestamosActivos.get(i);
+            if (loan.getUsuario().equals(userToDelete)) {
+                return "Error: El usuario '" + usernameToDelete + "' tiene préstamos activos. No se puede eliminar.";
+            }
+        }
+
+        // 1b. Retirar sus solicitudes de las listas de espera
+        for (ColaPrioridadIndexada.Handle<LoanRequest> handle : new ArrayList<>(solicitudesPendientes.values())) {
+            if (handle.getElemento().getUser().equals(userToDelete)) {
+                cancelLoanRequest(usernameToDelete, handle.getElemento().getBook().getId());
+            }
+        }
+
+        // 2. Eliminar valoraciones de este usuario de los libros que valoró (según el índice)
+        PostingList librosValorados = indiceValoraciones.rightsOf(userToDelete);
+        for (int i = 0; i < librosValorados.size(); i++) {
+            Book book = indiceValoraciones.right(librosValorados.get(i));
+            DoubleList<Rating> ratingsDelLibro = book.getRatings();
+            DoubleList<Rating> ratingsAGuardar = new DoubleList<>(); // Nueva lista para ratings que no son del usuario
+            boolean bookRatingsModified = false;
+            for (int j = 0; j < ratingsDelLibro.size(); j++) {
+                Rating rating = ratingsDelLibro.get(j);
+                if (!rating.getUsuario().equals(userToDelete)) {
+                    ratingsAGuardar.addLast(rating);
+                } else {
+                    bookRatingsModified = true;
+                }
+            }
+            if (bookRatingsModified) {
+                // Reemplazar la lista de ratings del libro y recalcular promedio
+                // Esto asume que Book tiene un setRatings(DoubleList<Rating>) o que podemos limpiar y re-añadir
+                // Por ahora, vamos a limpiar y re-añadir.
+                ratingsDelLibro.clear(); // Asume que DoubleList tiene clear()
+                for(int k=0; k < ratingsAGuardar.size(); k++){
+                    ratingsDelLibro.addLast(ratingsAGuardar.get(k));
+                }
+                book.recalculateCalificacionPromedio(); // Asume que Book tiene este método
+            }
+        }
+
+        // 3. Eliminar historial de préstamos y valoraciones DEL USUARIO
+        if (userToDelete.getHistorialPrestamos() != null) {
+            userToDelete.getHistorialPrestamos().clear(); // Asume clear()
+        }
+        if (userToDelete.getLibrosValorados() != null) {
+            userToDelete.getLibrosValorados().clear(); // Asume clear()
+        }
+        indiceValoraciones.removeLeft(userToDelete);
+        indicePrestamos.removeLeft(userToDelete);
+
+        // 4. Eliminar del grafo de afinidad
+        synchronized (afinidadLock) {
+            redAfinidad.removeVertex(userToDelete);
+            afinidadesPorPrestamo.removeVertex(userToDelete);
+        }
+
+        // 5. Eliminar de la lista de usuarios
+        boolean removedFromList = usuarios.remove(userToDelete); // Asume que DoubleList tiene remove(Object o)
+        usuariosPorUsername.remove(userToDelete.getUsername());
+        
+        if (removedFromList) {
+            return "Usuario '" + usernameToDelete + "' eliminado exitosamente junto con su historial y valoraciones.";
+        } else {
+            // Esto no debería pasar si el usuario fue encontrado inicialmente, pero es una salvaguarda
+            return "Error: No se pudo eliminar al usuario '" + usernameToDelete + "' de la lista principal (pero otros datos podrían haber sido afectados).";
+        }
+    }
+
+    // --- Implementación de Sugerencia de Amigos por Categoría de Libros ---
+    public DoubleList<String> getPreferredCategories(User user) {
+        DoubleList<String> preferredCategories = new DoubleList<>();
+        if (user == null) return preferredCategories;
+
+        DoubleList<Loan> loanHistory = user.getHistorialPrestamos();
+        if (loanHistory != null) {
+            for (int i = 0; i < loanHistory.size(); i++) {
+                Loan loan = loanHistory.get(i);
+                if (loan != null && loan.getLibro() != null) {
+                    Book book = loan.getLibro();
+                    if (book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
+                        String category = book.getCategoria().trim();
+                        String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
+                        if (!preferredCategories.contains(formattedCategory)) {
+                            preferredCategories.addLast(formattedCategory);
+                        }
+                    }
+                }
+            }
+        }
+
+        DoubleList<Rating> ratings = user.getLibrosValorados();
+        if (ratings != null) {
+            for (int i = 0; i < ratings.size(); i++) {
+                Rating rating = ratings.get(i);
+                if (rating != null && rating.getPuntuacion() >= 3) { 
+                    Book book = rating.getLibro();
+                    if (book != null && book.getCategoria() != null && !book.getCategoria().trim().isEmpty()) {
+                        String category = book.getCategoria().trim();
+                        String formattedCategory = category.substring(0, 1).toUpperCase() + category.substring(1).toLowerCase();
+                        if (!preferredCategories.contains(formattedCategory)) {
+                            preferredCategories.addLast(formattedCategory);
+                        }
+                    }
+                }
+            }
+        }
+        return preferredCategories;
+    }
+
+    public DoubleList<FriendSuggestionDetail> getFriendSuggestionsByBookCategory(String username, int count) {
+        User currentUser = findUserByUsername(username);
+        if (currentUser == null) return new DoubleList<>(); // Devolver lista vacía de FriendSuggestionDetail
+
+        DoubleList<String> currentUserPreferredCategories = getPreferredCategories(currentUser);
+        if (currentUserPreferredCategories.isEmpty()) return new DoubleList<>();
+
+        CsrGraph<User> red = getAffinitySnapshot();
+        int current = red.idOf(currentUser);
+        // Solo se conservan las count sugerencias con más categorías en común
+        TopK<FriendSuggestionDetail> suggestionDetailsList = new TopK<>(Math.max(count, 0),
+                (s1, s2) -> Integer.compare(s2.getSimilarityScore(), s1.getSimilarityScore()));
+        DoubleList<User> allUsers = getUsuarios();
+
+        for (int i = 0; i < allUsers.size(); i++) {
+            User otherUser = allUsers.get(i);
+            if (otherUser.equals(currentUser)) continue; 
+
+            boolean alreadyConnected = red.hasEdge(current, red.idOf(otherUser));
+            if (alreadyConnected) continue;
+            
+            boolean requestExists = false;
+            DoubleList<FriendRequest> currentUserSentRequests = currentUser.getSentFriendRequests();
+            if (currentUserSentRequests != null) { 
+                for(int k=0; k < currentUserSentRequests.size(); k++){ 
+                    FriendRequest req = currentUserSentRequests.get(k);
+                    if(req.getReceiverUsername().equals(otherUser.getUsername()) && 
+                       (req.getStatus() == FriendRequestStatus.PENDING || req.getStatus() == FriendRequestStatus.ACCEPTED)){
+                        requestExists = true;
+                        break;
+                    }
+                }
+            }
+            if(requestExists) continue;
+
+            DoubleList<FriendRequest> currentUserReceivedRequests = currentUser.getReceivedFriendRequests();
+            if (currentUserReceivedRequests != null) { 
+                for(int k=0; k < currentUserReceivedRequests.size(); k++){ 
+                    FriendRequest req = currentUserReceivedRequests.get(k);
+                    if(req.getSenderUsername().equals(otherUser.getUsername()) && 
+                       (req.getStatus() == FriendRequestStatus.PENDING || req.getStatus() == FriendRequestStatus.ACCEPTED)){
+                        requestExists = true;
+                        break;
+                    }
+                }
+            }
+            if(requestExists) continue;
+
+            DoubleList<String> otherUserPreferredCategories = getPreferredCategories(otherUser);
+            DoubleList<String> commonCategoriesFound = new DoubleList<>(); // Para almacenar las categorías comunes
+            int commonCategoriesCount = 0;
+
+            for (int j = 0; j < currentUserPreferredCategories.size(); j++) {
+                String preferredCat = currentUserPreferredCategories.get(j);
+                if (otherUserPreferredCategories.contains(preferredCat)) {
+                    commonCategoriesCount++;
+                    if(!commonCategoriesFound.contains(preferredCat)) { // Asegurar unicidad si es necesario, aunque aquí solo listamos
+                        commonCategoriesFound.addLast(preferredCat);
+                    }
+                }
+            }
+
+            if (commonCategoriesCount > 0) {
+                suggestionDetailsList.offer(new FriendSuggestionDetail(otherUser, commonCategoriesFound, commonCategoriesCount));
+            }
+        }
+
+        // Ordenadas por similarityScore (descendente)
+        return suggestionDetailsList.drainOrdered();
+    }
+
+    // --- Gestión de Solicitudes de Amistad ---
+    public synchronized String sendFriendRequest(String senderUsername, String receiverUsername) {
+        User senderUser = findUserByUsername(senderUsername);
+        User receiverUser = findUserByUsername(receiverUsername);
+
+        if (senderUser == null) return "Error: Usuario remitente no encontrado.";
+        if (receiverUser == null) return "Error: Usuario destinatario no encontrado.";
+        if (senderUsername.equals(receiverUsername)) return "Error: No puedes enviarte una solicitud a ti mismo.";
+
+        CsrGraph<User> red = getAffinitySnapshot();
+        if (red.hasEdge(red.idOf(senderUser), red.idOf(receiverUser))) {
+            return "Error: Ya sois amigos.";
+        }
+
+        for (int i = 0; i < senderUser.getSentFriendRequests().size(); i++) {
+            FriendRequest req = senderUser.getSentFriendRequests().get(i);
+            if (req.getReceiverUsername().equals(receiverUsername)) {
+                if (req.getStatus() == FriendRequestStatus.PENDING) return "Error: Ya existe una solicitud pendiente para este usuario.";
+                if (req.getStatus() == FriendRequestStatus.ACCEPTED) return "Error: Ya sois amigos (solicitud previamente aceptada).";
+            }
+        }
+         for (int i = 0; i < senderUser.getReceivedFriendRequests().size(); i++) {
+            FriendRequest req = senderUser.getReceivedFriendRequests().get(i);
+            if (req.getSenderUsername().equals(receiverUsername) && req.getStatus() == FriendRequestStatus.PENDING) {
+                return "Error: Ya tienes una solicitud pendiente de este usuario. Revísala.";
+            }
+        }       
+
+        FriendRequest newRequest = new FriendRequest(senderUsername, receiverUsername);
+        senderUser.getSentFriendRequests().addLast(newRequest);
+        receiverUser.getReceivedFriendRequests().addLast(newRequest);
+        return "Solicitud de amistad enviada a " + receiverUsername + ".";
+    }
+
+    public DoubleList<FriendRequest> getPendingFriendRequests(String username) {
+        User user = findUserByUsername(username);
+        DoubleList<FriendRequest> pendingRequests = new DoubleList<>();
+        if (user == null || user.getReceivedFriendRequests() == null) return pendingRequests;
+
+        for (int i = 0; i < user.getReceivedFriendRequests().size(); i++) {
+            FriendRequest req = user.getReceivedFriendRequests().get(i);
+            if (req.getStatus() == FriendRequestStatus.PENDING) {
+                pendingRequests.addLast(req);
+            }
+        }
+        return pendingRequests;
+    }
+    
+    public DoubleList<FriendRequest> getSentFriendRequestsWithStatus(String username) {
+        User user = findUserByUsername(username);
+        if (user == null || user.getSentFriendRequests() == null) {
+            return new DoubleList<>(); // Devuelve lista vacía si no hay usuario o solicitudes
+        }
+        return user.getSentFriendRequests();
+    }
+
+    public synchronized String acceptFriendRequest(String acceptorUsername, String requesterUsername) {
+        User acceptor = findUserByUsername(acceptorUsername);
+        User requester = findUserByUsername(requesterUsername);
+
+        if (acceptor == null || requester == null) {
+            return "Error: Uno o ambos usuarios no existen.";
+        }
+        if (acceptor.equals(requester)) {
+            return "Error: No puedes aceptar una solicitud de ti mismo.";
+        }
+
+        FriendRequest requestInAcceptorList = null;
+        for (int i = 0; i < acceptor.getReceivedFriendRequests().size(); i++) {
+            FriendRequest req = acceptor.getReceivedFriendRequests().get(i);
+            if (req.getSenderUsername().equals(requesterUsername) && req.getStatus() == FriendRequestStatus.PENDING) {
+                requestInAcceptorList = req;
+                break;
+            }
+        }
+
+        if (requestInAcceptorList == null) {
+            return "No se encontró una solicitud pendiente de " + requesterUsername + " para " + acceptorUsername + ".";
+        }
+
+        requestInAcceptorList.setStatus(FriendRequestStatus.ACCEPTED);
+
+        // Sincronizar el estado en la lista de enviados del solicitante
+        for (int i = 0; i < requester.getSentFriendRequests().size(); i++) {
+            FriendRequest sentReq = requester.getSentFriendRequests().get(i);
+            if (sentReq.getReceiverUsername().equals(acceptorUsername) && sentReq.getSenderUsername().equals(requesterUsername)) {
+                sentReq.setStatus(FriendRequestStatus.ACCEPTED);
+                break;
+            }
+        }
+        
+        saveData(DATA_FILE_PATH);
+        return "Solicitud de amistad de " + requesterUsername + " aceptada.";
+    }
+
+    public synchronized String rejectFriendRequest(String rejectorUsername, String requesterUsername) {
+        User rejectorUser = findUserByUsername(rejectorUsername);
+        User requesterUser = findUserByUsername(requesterUsername);
+
+        if (rejectorUser == null || requesterUser == null) return "Error: Uno o ambos usuarios no encontrados.";
+
+        FriendRequest requestToReject = null;
+        int requestIndexInReceived = -1;
+        // Buscar en las recibidas del que rechaza
+        for (int i = 0; i < rejectorUser.getReceivedFriendRequests().size(); i++) {
+            FriendRequest req = rejectorUser.getReceivedFriendRequests().get(i);
+            if (req.getSenderUsername().equals(requesterUsername) && req.getStatus() == FriendRequestStatus.PENDING) {
+                requestToReject = req;
+                requestIndexInReceived = i;
+                break;
+            }
+        }
+
+        if (requestToReject == null) return "Error: No se encontró una solicitud pendiente de " + requesterUsername + " para rechazar.";
+
+        // Opción 1: Marcar como REJECTED
+        requestToReject.setStatus(FriendRequestStatus.REJECTED);
+        // Actualizar también en la lista de enviados del solicitante original
+         for (int i = 0; i < requesterUser.getSentFriendRequests().size(); i++) {
+            FriendRequest req = requesterUser.getSentFriendRequests().get(i);
+            if (req.getReceiverUsername().equals(rejectorUsername) && req.getSenderUsername().equals(requesterUsername)) { 
+                req.setStatus(FriendRequestStatus.REJECTED);
+                break;
+            }
+        }
+        return "Solicitud de amistad de " + requesterUsername + " rechazada.";
+    }
+
+    public synchronized String removeFriend(String user1Username, String user2Username) {
+        User user1 = findUserByUsername(user1Username);
+        User user2 = findUserByUsername(user2Username);
+
+        if (user1 == null || user2 == null) {
+            return "Error: Uno o ambos usuarios no existen.";
+        }
+
+        if (user1.equals(user2)) {
+            return "Error: No puedes eliminarte a ti mismo como amigo.";
+        }
+
+        boolean friendshipAltered = false;
+
+        // Buscar en solicitudes enviadas por user1 a user2
+        for (int i = 0; i < user1.getSentFriendRequests().size(); i++) {
+            FriendRequest req = user1.getSentFriendRequests().get(i);
+            if (req.getReceiverUsername().equals(user2Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
+                req.setStatus(FriendRequestStatus.REJECTED); // O un nuevo estado UNFRIENDED
+                friendshipAltered = true;
+            }
+        }
+        // Buscar en solicitudes recibidas por user1 de user2
+        for (int i = 0; i < user1.getReceivedFriendRequests().size(); i++) {
+            FriendRequest req = user1.getReceivedFriendRequests().get(i);
+            if (req.getSenderUsername().equals(user2Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
+                req.setStatus(FriendRequestStatus.REJECTED);
+                friendshipAltered = true;
+            }
+        }
+        // Sincronizar para user2
+        for (int i = 0; i < user2.getSentFriendRequests().size(); i++) {
+            FriendRequest req = user2.getSentFriendRequests().get(i);
+            if (req.getReceiverUsername().equals(user1Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
+                req.setStatus(FriendRequestStatus.REJECTED);
+                friendshipAltered = true;
+            }
+        }
+        for (int i = 0; i < user2.getReceivedFriendRequests().size(); i++) {
+            FriendRequest req = user2.getReceivedFriendRequests().get(i);
+            if (req.getSenderUsername().equals(user1Username) && req.getStatus() == FriendRequestStatus.ACCEPTED) {
+                req.setStatus(FriendRequestStatus.REJECTED);
+                friendshipAltered = true;
+            }
+        }
+
+        if (friendshipAltered) {
+            saveData(DATA_FILE_PATH);
+            return "Amistad entre " + user1Username + " y " + user2Username + " terminada (estado de solicitud actualizado).";
+        } else {
+            return "No se encontró una amistad aceptada entre " + user1Username + " y " + user2Username + " para terminar.";
+        }
+    }
+
+    // --- NUEVO: Lógica para afinidad automática basada en valoraciones ---
+    private void clearGraphEdges(Graph<User> graphToClear) {
+        if (graphToClear == null) return;
+        graphToClear.clearEdges(); // Los vértices se conservan
+    }
+
+    // Vuelve a poner en redAfinidad las afinidades por préstamos. Se llama con afinidadLock
+    private void restoreLoanAffinities() {
+        for (User u : afinidadesPorPrestamo.getVertices()) {
+            redAfinidad.addEdges(u, afinidadesPorPrestamo.getNeighbors(u));
+        }
+    }
+
+    public void recalculateAffinitiesBasedOnRatings() {
+        recalculateAffinitiesBasedOnRatings(false);
+    }
+
+    /**
+     * Reconstruye todas las afinidades automáticas a partir de las valoraciones (ver {@link AffinityCalculator}).
+     * Bajo el monitor solo se copian las valoraciones de los lectores; la comparación de parejas se hace sin
+     * cerrojos y el grafo se bloquea solo para sustituir sus aristas.
+     * @param paralelo si es true la comparación de parejas de lectores se reparte entre varios hilos;
+     *                 compensa con muchos lectores, como en el recálculo completo del administrador.
+     */
+    public void recalculateAffinitiesBasedOnRatings(boolean paralelo) {
+        synchronized (mantenimientoLock) {
+            AffinityCalculator calculator;
+            synchronized (this) {
+                if (this.usuarios == null || this.usuarios.isEmpty()) {
+                    System.out.println("DEBUG: No hay usuarios para calcular afinidades.");
+                    return;
+                }
+                valoracionesPendientes.clear(); // El recálculo completo ya tiene en cuenta todas las valoraciones
+
+                List<User> lectores = new ArrayList<>();
+                synchronized (afinidadLock) {
+                    for (User u : usuarios) { // Con el iterador, el hilo de mantenimiento no toca el cursor de la lista
+                        if (u.getTipoUsuario() == TipoUsuario.LECTOR) {
+                            lectores.add(u);
+                            redAfinidad.addVertex(u); // Asegurarse de que todos los lectores son vértices
+                        }
+                    }
+                }
+                calculator = new AffinityCalculator(lectores, this::enCatalogo);
+            }
+
+            int[] parejas = calculator.findAffinePairs(paralelo);
+            int creadas;
+            synchronized (afinidadLock) {
+                // Se sustituyen todas las afinidades por valoraciones: se vacía la red (los vértices se mantienen),
+                // se reponen las afinidades por préstamos y se añaden las parejas calculadas.
+                clearGraphEdges(redAfinidad);
+                restoreLoanAffinities();
+                creadas = calculator.addEdges(redAfinidad, parejas);
+                redAfinidadCsr = CsrGraph.of(redAfinidad); // Las consultas siguientes usan ya la red recalculada
+            }
+            System.out.println("DEBUG: Recálculo de afinidades automáticas completado (" + creadas + " afinidades).");
+        }
+        saveData(DATA_FILE_PATH); // Guardar cambios en la red de afinidad
+    }
+
+    // Copia tomada bajo el monitor de lo que necesita un lote de valoraciones para decidir sus afinidades:
+    // las parejas a comparar y las puntuaciones de sus usuarios antes y después del lote
+    private static final class LoteAfinidades {
+        final List<User[]> parejas = new ArrayList<>();
+        final Map<User, Map<String, Integer>> ahora = new HashMap<>();
+        final Map<User, Map<String, Integer>> antes = new HashMap<>();
+    }
+
+    /**
+     * Prepara la actualización incremental de las afinidades por valoraciones tras un lote de valoraciones, con el
+     * mismo criterio que {@link #recalculateAffinitiesBasedOnRatings()} (al menos 3 libros en común con puntuaciones
+     * que difieren como mucho en 1). Una valoración de user sobre book solo puede cambiar la afinidad de user con
+     * quienes también valoraron book, así que se recorren las valoraciones del libro (índice libro -> lectores)
+     * en lugar de comparar todos los pares de lectores: el coste depende del número de co-lectores.
+     * Se llama bajo el monitor.
+     */
+    private LoteAfinidades copyAffinityBatch(Collection<ValoracionPendiente> valoraciones) {
+        LoteAfinidades lote = new LoteAfinidades();
+        // Puntuación previa al lote de cada valoración pendiente ("idLibro|username"; null si no existía)
+        Map<String, Integer> anteriores = new HashMap<>();
+        for (ValoracionPendiente pendiente : valoraciones) {
+            anteriores.put(pendingKey(pendiente.book.getId(), pendiente.user.getUsername()), pendiente.puntuacionAnterior);
+        }
+
+        for (ValoracionPendiente pendiente : valoraciones) {
+            User user = pendiente.user;
+            for (Rating ratingOtro : pendiente.book.getRatings()) {
+                User otro = ratingOtro.getUsuario();
+                if (otro == null || otro.equals(user) || otro.getTipoUsuario() != TipoUsuario.LECTOR) {
+                    continue;
+                }
+                // Las valoraciones no se borran y el índice contiene justo las de libros del catálogo (las únicas que
+                // cuentan), así que los libros valorados por ambos (intersección de sus listas en el índice)
+                // acotan lo que pudieron tener en común antes y después del lote
+                if (indiceValoraciones.countCommonRights(user, otro) < AffinityCalculator.MIN_LIBROS_COMUNES) {
+                    continue;
+                }
+                lote.parejas.add(new User[]{user, otro});
+                for (User u : new User[]{user, otro}) {
+                    if (!lote.ahora.containsKey(u)) {
+                        lote.ahora.put(u, puntuacionesPorLibro(u, null));
+                        lote.antes.put(u, puntuacionesPorLibro(u, anteriores));
+                    }
+                }
+            }
+        }
+        return lote;
+    }
+
+    /**
+     * Compara cada pareja del lote antes y después de sus valoraciones: se crea la arista si ahora cumple el
+     * criterio y se elimina si lo cumplía antes y ya no, salvo que la pareja también sea afín por préstamos.
+     * Así el resultado coincide con el del recálculo completo. Después publica la nueva instantánea de la red.
+     */
+    private void applyAffinityBatch(LoteAfinidades lote) {
+        List<User[]> altas = new ArrayList<>();
+        List<User[]> bajas = new ArrayList<>();
+        for (User[] pareja : lote.parejas) {
+            int ahora = countSimilarRatings(lote.ahora.get(pareja[0]), lote.ahora.get(pareja[1]));
+            int antes = countSimilarRatings(lote.antes.get(pareja[0]), lote.antes.get(pareja[1]));
+            if (ahora >= AffinityCalculator.MIN_LIBROS_COMUNES) {
+                altas.add(pareja);
+            } else if (antes >= AffinityCalculator.MIN_LIBROS_COMUNES) {
+                bajas.add(pareja);
+            }
+        }
+
+        synchronized (afinidadLock) {
+            for (User[] pareja : altas) {
+                // addEdge falla si alguno de los dos se eliminó desde que se copió el lote
+                if (!redAfinidad.hasEdge(pareja[0], pareja[1]) && redAfinidad.addEdge(pareja[0], pareja[1])) {
+                    System.out.println("DEBUG: Afinidad automática creada entre " + pareja[0].getUsername() + " y " + pareja[1].getUsername());
+                }
+            }
+            for (User[] pareja : bajas) {
+                if (!afinidadesPorPrestamo.hasEdge(pareja[0], pareja[1]) && redAfinidad.removeEdge(pareja[0], pareja[1])) {
+                    System.out.println("DEBUG: Afinidad automática eliminada entre " + pareja[0].getUsername() + " y " + pareja[1].getUsername());
+                }
+            }
+            redAfinidadCsr = CsrGraph.of(redAfinidad);
+        }
+    }
+
+    // idLibro -> puntuación del usuario. Con anteriores, las valoraciones pendientes toman su puntuación previa
+    // al lote (y se omiten las que no existían)
+    private Map<String, Integer> puntuacionesPorLibro(User user, Map<String, Integer> anteriores) {
+        Map<String, Integer> puntuaciones = new HashMap<>();
+        for (Rating rating : user.getLibrosValorados()) {
+            if (!enCatalogo(rating.getLibro())) {
+                continue; // Igual que en el recálculo completo, los libros purgados no cuentan
+            }
+            String bookId = rating.getLibro().getId();
+            String key = pendingKey(bookId, user.getUsername());
+            Integer puntuacion = (anteriores != null && anteriores.containsKey(key)) ? anteriores.get(key) : Integer.valueOf(rating.getPuntuacion());
+            if (puntuacion != null) {
+                puntuaciones.putIfAbsent(bookId, puntuacion);
+            }
+        }
+        return puntuaciones;
+    }
+
+    private int countSimilarRatings(Map<String, Integer> puntuacionesA, Map<String, Integer> puntuacionesB) {
+        int commonBooksWithSimilarRating = 0;
+        for (Map.Entry<String, Integer> entry : puntuacionesB.entrySet()) {
+            Integer puntuacionA = puntuacionesA.get(entry.getKey());
+            if (puntuacionA != null && Math.abs(puntuacionA - entry.getValue()) <= AffinityCalculator.MAX_DIFERENCIA) {
+                commonBooksWithSimilarRating++;
+            }
+        }
+        return commonBooksWithSimilarRating;
+    }
+
+    public String adminRecalculateAllAffinities() {
+        recalculateAffinitiesBasedOnRatings(true);
+        return "Se han recalculado todas las afinidades automáticas basadas en valoraciones.";
+    }
+
+    // --- Implementación de Sugerencia de Amigos por Red (Amigos de Amigos) ---
+    public DoubleList<User> getFriendSuggestionsByNetwork(String username, int count) {
+        DoubleList<User> suggestions = new DoubleList<>();
+        User currentUser = findUserByUsername(username);
+
+        CsrGraph<User> red = getAffinitySnapshot();
+        int current = red.idOf(currentUser);
+        if (currentUser == null || current < 0) {
+            return suggestions; // Usuario no encontrado o no en el grafo
+        }
+
+        // Marcas por id denso: el propio usuario y sus amigos directos quedan excluidos,
+        // y cada candidato se marca al sugerirlo para no repetirlo
+        boolean[] excluido = new boolean[red.size()];
+        excluido[current] = true;
+        for (int e = red.edgeStart(current); e < red.edgeEnd(current); e++) {
+            excluido[red.target(e)] = true;
+        }
+
+        // 1. Obtener amigos de amigos (vecinos de segundo grado)
+        for (int e = red.edgeStart(current); e < red.edgeEnd(current) && suggestions.size() < count; e++) {
+            int friend = red.target(e);
+            for (int f = red.edgeStart(friend); f < red.edgeEnd(friend) && suggestions.size() < count; f++) {
+                int potentialSuggestion = red.target(f);
+                if (!excluido[potentialSuggestion]) {
+                    excluido[potentialSuggestion] = true;
+                    suggestions.addLast(red.vertex(potentialSuggestion));
+                }
+            }
+        }
+
+        return suggestions;
+    }
 } 
\ No newline at end of file
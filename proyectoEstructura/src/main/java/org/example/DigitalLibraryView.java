@@ -7,7 +7,7 @@ import org.example.model.User;
 import org.example.model.enums.TipoUsuario;
 import org.example.structures.doubleList.DoubleList;
 import org.example.structures.colaPrioridad.ColaPrioridad;
-import org.example.structures.graph.Graph; // IMPORTACIÓN AÑADIDA
+import org.example.structures.graph.CsrGraph;
 import org.example.model.ChatMessage; // Importación añadida
 import org.example.model.FriendRequest; // Importar FriendRequest
 import org.example.model.enums.FriendRequestStatus; // Importar FriendRequestStatus
@@ -42,6 +42,11 @@ public class DigitalLibraryView extends JFrame {
     private DefaultTableModel bookCatalogTableModel;
     private JButton addBookButton;
     private JButton loadBooksButton;
+    // Paginación del catálogo: cada página se pide al árbol con getCatalogPage, sin copiar el catálogo entero
+    private static final int CATALOG_PAGE_SIZE = 50;
+    private int catalogPage = 0; // Página mostrada, empezando en 0
+    private JLabel catalogPageLabel;
+    private JButton prevCatalogPageButton, nextCatalogPageButton;
     private JTextField bookTitleField, bookAuthorField, bookCategoryField, bookYearField, bookIdField, bookStockField;
     private JTextField searchBookField;
     private JButton searchBookByIdButton, searchBookByTitleButton;
@@ -62,7 +67,7 @@ public class DigitalLibraryView extends JFrame {
     private JTextField opBookIdLoanField, opBookIdReturnField, opBookIdRateField;
     private JSpinner opRatingSpinner; // Para la puntuación de 1-5
     private JTextField opRatingCommentField; // NUEVO: Campo para comentario de la valoración
-    private JButton requestLoanButton, returnLoanButton, rateBookButton;
+    private JButton requestLoanButton, cancelLoanRequestButton, returnLoanButton, rateBookButton;
     private JTable activeLoansTable, waitlistTable;
     private DefaultTableModel activeLoansTableModel, waitlistTableModel;
     private JButton loadUserLoansButton, loadGlobalWaitlistButton;
@@ -124,6 +129,7 @@ public class DigitalLibraryView extends JFrame {
                 // Guardar datos antes de salir
                 if (DigitalLibraryView.this.biblioteca != null) {
                     System.out.println("Guardando datos desde la GUI antes de salir...");
+                    DigitalLibraryView.this.biblioteca.flushAffinityUpdates(); // Afinidades aún pendientes
                     DigitalLibraryView.this.biblioteca.saveData(DATA_FILE_PATH);
                 }
                 // Proceder a cerrar la aplicación
@@ -381,7 +387,23 @@ public class DigitalLibraryView extends JFrame {
         
         loadBooksButton = new JButton("Cargar/Actualizar Catálogo");
         loadBooksButton.addActionListener(e -> loadBooks()); // Asegurar que la acción llama a loadBooks
-        displayBooksPanel.add(loadBooksButton, BorderLayout.SOUTH);
+        prevCatalogPageButton = new JButton("< Anterior");
+        prevCatalogPageButton.addActionListener(e -> {
+            catalogPage--;
+            loadBooks();
+        });
+        nextCatalogPageButton = new JButton("Siguiente >");
+        nextCatalogPageButton.addActionListener(e -> {
+            catalogPage++;
+            loadBooks();
+        });
+        catalogPageLabel = new JLabel();
+        JPanel catalogControlsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        catalogControlsPanel.add(prevCatalogPageButton);
+        catalogControlsPanel.add(catalogPageLabel);
+        catalogControlsPanel.add(nextCatalogPageButton);
+        catalogControlsPanel.add(loadBooksButton);
+        displayBooksPanel.add(catalogControlsPanel, BorderLayout.SOUTH);
         leftBookPanel.add(displayBooksPanel, BorderLayout.CENTER);
 
         if (currentUserLoggedIn != null && currentUserLoggedIn.getTipoUsuario() == TipoUsuario.ADMINISTRADOR) {
@@ -528,6 +550,8 @@ public class DigitalLibraryView extends JFrame {
         requestLoanButton = new JButton("Solicitar");
         requestLoanPanel.add(createLabeledField("ID Libro:", opBookIdLoanField));
         requestLoanPanel.add(requestLoanButton);
+        cancelLoanRequestButton = new JButton("Cancelar Espera");
+        requestLoanPanel.add(cancelLoanRequestButton);
         actionsPanel.add(requestLoanPanel);
 
         // 2. Panel Devolver Libro
@@ -594,6 +618,7 @@ public class DigitalLibraryView extends JFrame {
 
         // Action Listeners para Operaciones
         requestLoanButton.addActionListener(e -> requestLoanGUI());
+        cancelLoanRequestButton.addActionListener(e -> cancelLoanRequestGUI());
         returnLoanButton.addActionListener(e -> returnLoanGUI());
         rateBookButton.addActionListener(e -> rateBookGUI());
         loadUserLoansButton.addActionListener(e -> loadUserLoansGUI());
@@ -660,6 +685,20 @@ public class DigitalLibraryView extends JFrame {
         loadGlobalWaitlistGUI();
     }
 
+    private void cancelLoanRequestGUI() {
+        String username = getUsernameForOperation();
+        String bookId = opBookIdLoanField.getText();
+        if (username.isEmpty() || bookId.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Username e ID de Libro son requeridos para cancelar la espera.", "Error en Solicitud", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String result = biblioteca.cancelLoanRequest(username, bookId);
+        JOptionPane.showMessageDialog(this, result, "Lista de Espera", JOptionPane.INFORMATION_MESSAGE);
+        logMessage("Operaciones: " + result);
+        opBookIdLoanField.setText("");
+        loadGlobalWaitlistGUI();
+    }
+
     private void returnLoanGUI() {
         String username = getUsernameForOperation();
         String bookId = opBookIdReturnField.getText();
@@ -860,10 +899,17 @@ public class DigitalLibraryView extends JFrame {
         // Limpiar filas anteriores
         bookCatalogTableModel.setRowCount(0); 
         
-        DoubleList<Book> books = biblioteca.getCatalogoLibros().inOrderTraversal();
-        if (books != null && !books.isEmpty()) {
-            for (int i = 0; i < books.size(); i++) {
-                Book book = books.get(i);
+        int total = biblioteca.getCatalogSize();
+        int numPages = Math.max(1, (total + CATALOG_PAGE_SIZE - 1) / CATALOG_PAGE_SIZE);
+        catalogPage = Math.max(0, Math.min(catalogPage, numPages - 1)); // El catálogo puede haber cambiado
+        catalogPageLabel.setText("Página " + (catalogPage + 1) + " de " + numPages);
+        prevCatalogPageButton.setEnabled(catalogPage > 0);
+        nextCatalogPageButton.setEnabled(catalogPage < numPages - 1);
+
+        if (total > 0) {
+            // Solo se piden al árbol los libros de la página; los dados de baja no se muestran
+            DoubleList<Book> page = biblioteca.getCatalogPage(catalogPage, CATALOG_PAGE_SIZE);
+            for (Book book : page) {
                 if (book != null && book.isAvailable()) {
                     bookCatalogTableModel.addRow(new Object[]{
                             book.getId(),
@@ -876,7 +922,7 @@ public class DigitalLibraryView extends JFrame {
                     });
                 }
             }
-            logMessage("Catálogo de libros cargado/actualizado. Total: " + books.size() + " libros.");
+            logMessage("Catálogo de libros cargado/actualizado. Página " + (catalogPage + 1) + " de " + numPages + " (total: " + total + " libros).");
         } else {
             logMessage("No hay libros en el catálogo o no se pudieron cargar.");
         }
@@ -922,6 +968,17 @@ public class DigitalLibraryView extends JFrame {
                 book.getStockTotal(), book.getEjemplaresDisponibles()));
             logMessage("Libro encontrado por Título: " + title);
         } else {
+            // Si no hay coincidencia exacta, mostrar los títulos que empiezan por el texto buscado
+            DoubleList<Book> byPrefix = biblioteca.findBooksByTitlePrefix(title);
+            if (!byPrefix.isEmpty()) {
+                StringBuilder sb = new StringBuilder("Títulos que empiezan por '" + title + "':\n");
+                for (Book match : byPrefix) {
+                    sb.append(String.format("- %s (ID: %s, Autor: %s)\n", match.getTitulo(), match.getId(), match.getAutor()));
+                }
+                searchBookResultArea.setText(sb.toString());
+                logMessage("Libros encontrados por prefijo de título '" + title + "': " + byPrefix.size());
+                return;
+            }
             searchBookResultArea.setText("Libro con título '" + title + "' no encontrado.");
             logMessage("Libro con título '" + title + "' no encontrado.");
         }
@@ -1056,6 +1113,10 @@ public class DigitalLibraryView extends JFrame {
         adminMarkBookAvailableButton.setEnabled(false); // Habilitar al seleccionar fila
         adminMarkBookAvailableButton.addActionListener(e -> toggleBookAvailabilityAdmin());
         actionsPanel.add(adminMarkBookAvailableButton);
+
+        JButton adminPurgeBooksButton = new JButton("Purgar Libros No Disponibles");
+        adminPurgeBooksButton.addActionListener(e -> purgeUnavailableBooksAdmin());
+        actionsPanel.add(adminPurgeBooksButton);
         
         adminBooksTable.getSelectionModel().addListSelectionListener(e -> {
             adminMarkBookAvailableButton.setEnabled(adminBooksTable.getSelectedRow() != -1);
@@ -1071,10 +1132,9 @@ public class DigitalLibraryView extends JFrame {
     private void loadAdminBooksTable() {
         if (biblioteca == null || adminBooksTableModel == null) return;
         adminBooksTableModel.setRowCount(0); // Limpiar tabla
-        DoubleList<Book> allBooks = biblioteca.getCatalogoLibros().inOrderTraversal(); // Obtener TODOS los libros
-
-        for (int i = 0; i < allBooks.size(); i++) {
-            Book book = allBooks.get(i);
+        int total = 0;
+        for (Book book : biblioteca.getCatalogoLibros()) { // Recorrer TODOS los libros sin copiarlos
+            total++;
             if (book != null) {
                 adminBooksTableModel.addRow(new Object[]{
                         book.getId(),
@@ -1089,7 +1149,7 @@ public class DigitalLibraryView extends JFrame {
                 });
             }
         }
-        logMessage("Tabla de gestión de libros (Admin) actualizada. Total: " + allBooks.size() + " libros.");
+        logMessage("Tabla de gestión de libros (Admin) actualizada. Total: " + total + " libros.");
     }
 
     private void showAddBookDialogAdmin() {
@@ -1104,16 +1164,8 @@ public class DigitalLibraryView extends JFrame {
             return;
         }
         String bookId = (String) adminBooksTableModel.getValueAt(selectedRow, 0);
-        Book selectedBook = null;
         // Necesitamos obtener la instancia real del libro del catálogo
-        DoubleList<Book> allBooks = biblioteca.getCatalogoLibros().inOrderTraversal();
-        for(int i=0; i < allBooks.size(); i++){
-            Book b = allBooks.get(i);
-            if(b.getId().equals(bookId)){
-                selectedBook = b;
-                break;
-            }
-        }
+        Book selectedBook = biblioteca.findCatalogBookById(bookId);
 
         if (selectedBook == null) {
             JOptionPane.showMessageDialog(this, "No se pudo encontrar el libro seleccionado en el catálogo.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -1134,6 +1186,20 @@ public class DigitalLibraryView extends JFrame {
         loadBooks(); // Recargar también la tabla de catálogo general por si acaso
     }
 
+    private void purgeUnavailableBooksAdmin() {
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Los libros marcados como no disponibles se eliminarán definitivamente del catálogo y no podrán reactivarse.\n¿Desea continuar?",
+                "Confirmar Purga", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        int removed = biblioteca.purgeUnavailableBooks();
+        JOptionPane.showMessageDialog(this, "Se eliminaron " + removed + " libros no disponibles del catálogo.", "Resultado de Operación", JOptionPane.INFORMATION_MESSAGE);
+        logMessage("Admin: " + removed + " libros no disponibles purgados del catálogo.");
+        loadAdminBooksTable();
+        loadBooks();
+    }
+
     private JPanel createAdminUsersPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
@@ -1324,6 +1390,10 @@ public class DigitalLibraryView extends JFrame {
         mostConnectionsButton.addActionListener(e -> showMostConnectionsStats());
         panel.add(mostConnectionsButton, gbc);
 
+        JButton communitiesButton = new JButton("Ver Comunidades de Lectores");
+        communitiesButton.addActionListener(e -> showCommunitiesStats());
+        panel.add(communitiesButton, gbc);
+
         // Panel para Camino Más Corto
         JPanel shortestPathPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         shortestPathPanel.setBorder(BorderFactory.createTitledBorder("Camino Más Corto entre Lectores"));
@@ -1472,6 +1542,25 @@ public class DigitalLibraryView extends JFrame {
         }
     }
 
+    private void showCommunitiesStats() {
+        java.util.List<Integer> sizes = biblioteca.getAffinityCommunitySizes();
+        StringBuilder sb = new StringBuilder("--- Comunidades de la Red de Afinidad ---\n");
+        if (sizes.isEmpty()) {
+            sb.append("No hay lectores en la red de afinidad.");
+        } else {
+            sb.append("Total de comunidades: ").append(sizes.size()).append("\n\n");
+            int rank = 1;
+            for (int size : sizes) {
+                sb.append(String.format("%d. %d lector(es)\n", rank++, size));
+            }
+        }
+        JTextArea textArea = new JTextArea(sb.toString());
+        textArea.setEditable(false);
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(400, 300));
+        JOptionPane.showMessageDialog(this, scrollPane, "Estadísticas: Comunidades de Lectores", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     private void showShortestPath(String username1, String username2) {
         if (username1 == null || username1.trim().isEmpty() || username2 == null || username2.trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Por favor, ingrese ambos nombres de usuario.", "Entrada Requerida", JOptionPane.WARNING_MESSAGE);
@@ -1494,14 +1583,14 @@ public class DigitalLibraryView extends JFrame {
     }
 
     private void guiShowAffinityGraph() {
-        if (biblioteca == null || biblioteca.getRedAfinidad() == null) {
+        if (biblioteca == null) {
             JOptionPane.showMessageDialog(this, "No hay datos del grafo para mostrar.", "Grafo Vacío", JOptionPane.INFORMATION_MESSAGE);
             logMessage("Admin: No se puede mostrar el grafo, no hay datos.");
             return;
         }
 
-        Graph<User> affinityGraph = biblioteca.getRedAfinidad();
-        if (affinityGraph.getVertices().isEmpty()) {
+        CsrGraph<User> affinityGraph = biblioteca.getAffinitySnapshot();
+        if (affinityGraph.size() == 0) {
             JOptionPane.showMessageDialog(this, "El grafo de afinidad está vacío (no hay usuarios o conexiones).", "Grafo Vacío", JOptionPane.INFORMATION_MESSAGE);
             logMessage("Admin: El grafo de afinidad está vacío.");
             return;
@@ -1623,13 +1712,7 @@ public class DigitalLibraryView extends JFrame {
     // Método auxiliar para comprobar si un ID de libro ya existe en el catálogo (disponible o no)
     // Necesario para la validación en el diálogo de añadir libro.
     private boolean bookIdExistsInCatalog(String bookId) { // Nombre corregido
-        DoubleList<Book> todosLosLibrosCatalogo = biblioteca.getCatalogoLibros().inOrderTraversal();
-        for (int i = 0; i < todosLosLibrosCatalogo.size(); i++) {
-            if (todosLosLibrosCatalogo.get(i).getId().equals(bookId)) {
-                return true;
-            }
-        }
-        return false;
+        return biblioteca.findCatalogBookById(bookId) != null;
     }
 
     // --- Creación de Panel de Chat ---
@@ -1872,18 +1955,14 @@ public class DigitalLibraryView extends JFrame {
     private void refreshFriendsTable() {
         if (currentUserLoggedIn == null || currentUserLoggedIn.getTipoUsuario() != TipoUsuario.LECTOR || friendsTableModel == null) return;
         friendsTableModel.setRowCount(0);
-        // Asegurarse de que currentUserLoggedIn está en la red de afinidad antes de pedir vecinos
-        if (biblioteca.getRedAfinidad().hasVertex(currentUserLoggedIn)) {
-            DoubleList<User> friends = biblioteca.getRedAfinidad().getNeighbors(currentUserLoggedIn);
-            if (friends != null) {
-                for (int i = 0; i < friends.size(); i++) {
-                    User friend = friends.get(i);
-                    if (friend != null) {
-                        friendsTableModel.addRow(new Object[]{friend.getUsername()});
-                    }
-                }
+        // Vecinos en la instantánea de la red; si no está en el grafo, la tabla simplemente permanecerá vacía
+        DoubleList<User> friends = biblioteca.getFriendSuggestions(currentUserLoggedIn.getUsername());
+        for (int i = 0; i < friends.size(); i++) {
+            User friend = friends.get(i);
+            if (friend != null) {
+                friendsTableModel.addRow(new Object[]{friend.getUsername()});
             }
-        } // Si no está en el grafo, la tabla simplemente permanecerá vacía, lo cual es correcto.
+        }
         logMessage("Tabla de amigos actualizada.");
     }
 
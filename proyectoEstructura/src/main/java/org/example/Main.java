@@ -9,6 +9,7 @@ import org.example.model.enums.TipoUsuario;
 import javax.swing.SwingUtilities; // Para invocar en EDT
 import org.example.structures.doubleList.DoubleList;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Scanner;
 import org.example.DigitalLibraryView; // Importar la vista
 
@@ -46,19 +47,21 @@ public class Main {
         System.out.println("Inicializando datos de ejemplo para la biblioteca...");
         
         // Libros de ejemplo (ajustando stock según solicitud)
-        biblioteca.addBook(new Book("B001", "El Señor de los Anillos", "J.R.R. Tolkien", "Fantasía", 1954, 5));
-        biblioteca.addBook(new Book("B002", "Cien Años de Soledad", "Gabriel García Márquez", "Realismo Mágico", 1967, 1)); // Stock ajustado a 1
-        biblioteca.addBook(new Book("B003", "1984", "George Orwell", "Distopía", 1949, 0)); // Stock 0 para pruebas de lista de espera
-        biblioteca.addBook(new Book("B004", "Don Quijote de la Mancha", "Miguel de Cervantes", "Clásico", 1605, 1)); // Stock ajustado a 1
-        biblioteca.addBook(new Book("B005", "Harry Potter y la Piedra Filosofal", "J.K. Rowling", "Fantasía", 1997, 10));
-        biblioteca.addBook(new Book("B006", "Orgullo y Prejuicio", "Jane Austen", "Romance Clásico", 1813, 4));
-        biblioteca.addBook(new Book("B007", "Crónica de una Muerte Anunciada", "Gabriel García Márquez", "Novela Corta", 1981, 1)); // Ya tenía stock 1
-        biblioteca.addBook(new Book("B008", "El Código Da Vinci", "Dan Brown", "Misterio", 2003, 0)); // Stock 0
-        biblioteca.addBook(new Book("B009", "Matar un Ruiseñor", "Harper Lee", "Ficción Legal", 1960, 3));
-        biblioteca.addBook(new Book("B010", "La Sombra del Viento", "Carlos Ruiz Zafón", "Misterio", 2001, 6));
-        // Añadir dos libros más con stock 1 para asegurar variedad si se cambian los anteriores
-        biblioteca.addBook(new Book("B011", "Fahrenheit 451", "Ray Bradbury", "Ciencia Ficción", 1953, 1));
-        biblioteca.addBook(new Book("B012", "El Gran Gatsby", "F. Scott Fitzgerald", "Clásico Moderno", 1925, 1));
+        biblioteca.addBooks(List.of(
+                new Book("B001", "El Señor de los Anillos", "J.R.R. Tolkien", "Fantasía", 1954, 5),
+                new Book("B002", "Cien Años de Soledad", "Gabriel García Márquez", "Realismo Mágico", 1967, 1), // Stock ajustado a 1
+                new Book("B003", "1984", "George Orwell", "Distopía", 1949, 0), // Stock 0 para pruebas de lista de espera
+                new Book("B004", "Don Quijote de la Mancha", "Miguel de Cervantes", "Clásico", 1605, 1), // Stock ajustado a 1
+                new Book("B005", "Harry Potter y la Piedra Filosofal", "J.K. Rowling", "Fantasía", 1997, 10),
+                new Book("B006", "Orgullo y Prejuicio", "Jane Austen", "Romance Clásico", 1813, 4),
+                new Book("B007", "Crónica de una Muerte Anunciada", "Gabriel García Márquez", "Novela Corta", 1981, 1), // Ya tenía stock 1
+                new Book("B008", "El Código Da Vinci", "Dan Brown", "Misterio", 2003, 0), // Stock 0
+                new Book("B009", "Matar un Ruiseñor", "Harper Lee", "Ficción Legal", 1960, 3),
+                new Book("B010", "La Sombra del Viento", "Carlos Ruiz Zafón", "Misterio", 2001, 6),
+                // Añadir dos libros más con stock 1 para asegurar variedad si se cambian los anteriores
+                new Book("B011", "Fahrenheit 451", "Ray Bradbury", "Ciencia Ficción", 1953, 1),
+                new Book("B012", "El Gran Gatsby", "F. Scott Fitzgerald", "Clásico Moderno", 1925, 1)
+        ));
 
         // Usuarios con credenciales actualizadas
         biblioteca.registerUser(new User("U001", "Ana", "Pérez", "ana@example.com", "user1", "123", TipoUsuario.LECTOR));
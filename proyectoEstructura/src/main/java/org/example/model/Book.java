@@ -2,6 +2,7 @@ package org.example.model;
 
 import org.example.structures.doubleList.DoubleList; // Importar DoubleList
 import java.io.Serializable; // Importar Serializable
+import java.util.Comparator;
 
 public class Book implements Comparable <Book>, Serializable { // Implementar Serializable
     private static final long serialVersionUID = 1L; // Buena práctica
@@ -185,6 +186,23 @@ public class Book implements Comparable <Book>, Serializable { // Implementar Se
                 '}';
     }
 
+    /**
+     * Orden del catálogo: título sin distinguir mayúsculas y, a igual título, id.
+     * Así varias ediciones con el mismo título conviven en el árbol y cada libro tiene una
+     * posición única, localizable en O(log n).
+     */
+    public static final Comparator<Book> POR_TITULO_E_ID = new TituloIdComparator();
+
+    private static class TituloIdComparator implements Comparator<Book>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(Book a, Book b) {
+            int byTitle = String.CASE_INSENSITIVE_ORDER.compare(a.getTitulo(), b.getTitulo());
+            return byTitle != 0 ? byTitle : a.getId().compareTo(b.getId());
+        }
+    }
+
     @Override
     public int compareTo(Book other) {
         return this.titulo.compareTo(other.getTitulo());
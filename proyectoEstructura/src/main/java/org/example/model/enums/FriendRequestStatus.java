@@ -1,7 +1,7 @@
-package org.example.model.enums;
-
-public enum FriendRequestStatus {
-    PENDING,  // La solicitud está esperando una respuesta
-    ACCEPTED, // La solicitud ha sido aceptada
-    REJECTED  // La solicitud ha sido rechazada
+package org.example.model.enums;
+
+public enum FriendRequestStatus {
+    PENDING,  // La solicitud está esperando una respuesta
+    ACCEPTED, // La solicitud ha sido aceptada
+    REJECTED  // La solicitud ha sido rechazada
 } 
\ No newline at end of file
@@ -1,149 +1,186 @@
-package org.example.structures.BinaryTree;
-
-// No se usarán colecciones de Java para la estructura interna.
-// Se puede usar java.util.List o similar para devolver resultados de recorridos si se desea.
-import org.example.structures.doubleList.DoubleList; // Usar nuestra DoubleList
-
-public class BinaryTree<T extends Comparable<T>> {
-    private BinaryNode<T> root;
-
-    public BinaryTree() {
-        this.root = null;
-    }
-
-    public boolean isEmpty() {
-        return root == null;
-    }
-
-    public void clear() {
-        root = null;
-    }
-
-    // Insertar un elemento
-    public void insert(T data) {
-        root = insertRecursive(root, data);
-    }
-
-    private BinaryNode<T> insertRecursive(BinaryNode<T> current, T data) {
-        if (current == null) {
-            return new BinaryNode<>(data);
-        }
-
-        if (data.compareTo(current.getData()) < 0) {
-            current.setLeft(insertRecursive(current.getLeft(), data));
-        } else if (data.compareTo(current.getData()) > 0) {
-            current.setRight(insertRecursive(current.getRight(), data));
-        } else {
-            return current;
-        }
-        return current;
-    }
-
-    // Buscar un elemento
-    public T search(T data) {
-        return searchRecursive(root, data);
-    }
-
-    private T searchRecursive(BinaryNode<T> current, T data) {
-        if (current == null || data == null) {
-            return null;
-        }
-        int compareResult = data.compareTo(current.getData());
-        if (compareResult == 0) {
-            return current.getData();
-        }
-        if (compareResult < 0) {
-            return searchRecursive(current.getLeft(), data);
-        } else {
-            return searchRecursive(current.getRight(), data);
-        }
-    }
-
-    // Recorrido InOrder (Izquierda, Raíz, Derecha)
-    public DoubleList<T> inOrderTraversal() {
-        DoubleList<T> result = new DoubleList<>();
-        inOrderRecursive(root, result);
-        return result;
-    }
-
-    private void inOrderRecursive(BinaryNode<T> node, DoubleList<T> result) {
-        if (node != null) {
-            inOrderRecursive(node.getLeft(), result);
-            result.addLast(node.getData());
-            inOrderRecursive(node.getRight(), result);
-        }
-    }
-
-    // Recorrido PreOrder (Raíz, Izquierda, Derecha)
-    public DoubleList<T> preOrderTraversal() {
-        DoubleList<T> result = new DoubleList<>();
-        preOrderRecursive(root, result);
-        return result;
-    }
-
-    private void preOrderRecursive(BinaryNode<T> node, DoubleList<T> result) {
-        if (node != null) {
-            result.addLast(node.getData());
-            preOrderRecursive(node.getLeft(), result);
-            preOrderRecursive(node.getRight(), result);
-        }
-    }
-
-    // Recorrido PostOrder (Izquierda, Derecha, Raíz)
-    public DoubleList<T> postOrderTraversal() {
-        DoubleList<T> result = new DoubleList<>();
-        postOrderRecursive(root, result);
-        return result;
-    }
-
-    private void postOrderRecursive(BinaryNode<T> node, DoubleList<T> result) {
-        if (node != null) {
-            postOrderRecursive(node.getLeft(), result);
-            postOrderRecursive(node.getRight(), result);
-            result.addLast(node.getData());
-        }
-    }
-
-    // Eliminar un elemento (simplificado)
-    public void delete(T data) {
-        root = deleteRecursive(root, data);
-    }
-
-    private BinaryNode<T> deleteRecursive(BinaryNode<T> current, T data) {
-        if (current == null) {
-            return null;
-        }
-
-        if (data.equals(current.getData())) {
-            // Nodo encontrado, manejar los 3 casos de eliminación
-            // Caso 1: Nodo sin hijos (hoja)
-            if (current.getLeft() == null && current.getRight() == null) {
-                return null;
-            }
-            // Caso 2: Nodo con un solo hijo
-            if (current.getRight() == null) {
-                return current.getLeft();
-            }
-            if (current.getLeft() == null) {
-                return current.getRight();
-            }
-            // Caso 3: Nodo con dos hijos
-            // Encontrar el sucesor in-order (el valor más pequeño en el subárbol derecho)
-            T smallestValue = findSmallestValue(current.getRight());
-            current.setData(smallestValue); // Reemplazar el dato del nodo actual con el del sucesor
-            current.setRight(deleteRecursive(current.getRight(), smallestValue)); // Eliminar el sucesor del subárbol derecho
-            return current;
-
-        } else if (data.compareTo(current.getData()) < 0) {
-            current.setLeft(deleteRecursive(current.getLeft(), data));
-            return current;
-        } else {
-            current.setRight(deleteRecursive(current.getRight(), data));
-            return current;
-        }
-    }
-
-    private T findSmallestValue(BinaryNode<T> rootNode) {
-        return rootNode.getLeft() == null ? rootNode.getData() : findSmallestValue(rootNode.getLeft());
-    }
+package org.example.structures.BinaryTree;
+
+// No se usarán colecciones de Java para la estructura interna.
+// Se puede usar java.util.List o similar para devolver resultados de recorridos si se desea.
+import org.example.structures.doubleList.DoubleList; // Usar nuestra DoubleList
+import org.example.structures.pilas.Pila;
+
+public class BinaryTree<T extends Comparable<T>> {
+    private BinaryNode<T> root;
+
+    public BinaryTree() {
+        this.root = null;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    // Todas las operaciones son iterativas: un árbol degenerado (p. ej. al insertar datos
+    // ya ordenados) puede tener la profundidad de una lista y desbordar la pila de llamadas.
+
+    // Insertar un elemento (los duplicados se ignoran)
+    public void insert(T data) {
+        if (root == null) {
+            root = new BinaryNode<>(data);
+            return;
+        }
+        BinaryNode<T> current = root;
+        while (true) {
+            int compareResult = data.compareTo(current.getData());
+            if (compareResult < 0) {
+                if (current.getLeft() == null) {
+                    current.setLeft(new BinaryNode<>(data));
+                    return;
+                }
+                current = current.getLeft();
+            } else if (compareResult > 0) {
+                if (current.getRight() == null) {
+                    current.setRight(new BinaryNode<>(data));
+                    return;
+                }
+                current = current.getRight();
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Buscar un elemento
+    public T search(T data) {
+        if (data == null) {
+            return null;
+        }
+        BinaryNode<T> current = root;
+        while (current != null) {
+            int compareResult = data.compareTo(current.getData());
+            if (compareResult == 0) {
+                return current.getData();
+            }
+            current = compareResult < 0 ? current.getLeft() : current.getRight();
+        }
+        return null;
+    }
+
+    // Recorrido InOrder (Izquierda, Raíz, Derecha)
+    // Recorrido de Morris: enlaza temporalmente cada predecesor con su sucesor para volver
+    // sin pila; los enlaces se deshacen al pasar por segunda vez, dejando el árbol intacto.
+    public DoubleList<T> inOrderTraversal() {
+        DoubleList<T> result = new DoubleList<>();
+        BinaryNode<T> current = root;
+        while (current != null) {
+            if (current.getLeft() == null) {
+                result.addLast(current.getData());
+                current = current.getRight();
+            } else {
+                BinaryNode<T> predecessor = rightmostBefore(current);
+                if (predecessor.getRight() == null) {
+                    predecessor.setRight(current); // Enlace temporal
+                    current = current.getLeft();
+                } else {
+                    predecessor.setRight(null); // Deshacer el enlace
+                    result.addLast(current.getData());
+                    current = current.getRight();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Recorrido PreOrder (Raíz, Izquierda, Derecha), también con Morris
+    public DoubleList<T> preOrderTraversal() {
+        DoubleList<T> result = new DoubleList<>();
+        BinaryNode<T> current = root;
+        while (current != null) {
+            if (current.getLeft() == null) {
+                result.addLast(current.getData());
+                current = current.getRight();
+            } else {
+                BinaryNode<T> predecessor = rightmostBefore(current);
+                if (predecessor.getRight() == null) {
+                    result.addLast(current.getData());
+                    predecessor.setRight(current);
+                    current = current.getLeft();
+                } else {
+                    predecessor.setRight(null);
+                    current = current.getRight();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Predecesor in-order de un nodo con hijo izquierdo, deteniéndose ante un enlace temporal de Morris
+    private BinaryNode<T> rightmostBefore(BinaryNode<T> node) {
+        BinaryNode<T> predecessor = node.getLeft();
+        while (predecessor.getRight() != null && predecessor.getRight() != node) {
+            predecessor = predecessor.getRight();
+        }
+        return predecessor;
+    }
+
+    // Recorrido PostOrder (Izquierda, Derecha, Raíz), con una pila explícita en memoria dinámica
+    public DoubleList<T> postOrderTraversal() {
+        DoubleList<T> result = new DoubleList<>();
+        Pila<BinaryNode<T>> pending = new Pila<>();
+        BinaryNode<T> current = root;
+        BinaryNode<T> lastVisited = null;
+        while (current != null || !pending.isEmpty()) {
+            if (current != null) {
+                pending.push(current);
+                current = current.getLeft();
+            } else {
+                BinaryNode<T> top = pending.peek();
+                if (top.getRight() != null && top.getRight() != lastVisited) {
+                    current = top.getRight();
+                } else {
+                    result.addLast(top.getData());
+                    lastVisited = pending.pop();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Eliminar un elemento (simplificado)
+    public void delete(T data) {
+        BinaryNode<T> parent = null;
+        BinaryNode<T> current = root;
+        while (current != null && !data.equals(current.getData())) {
+            parent = current;
+            current = data.compareTo(current.getData()) < 0 ? current.getLeft() : current.getRight();
+        }
+        if (current == null) {
+            return;
+        }
+
+        // Caso 3: Nodo con dos hijos
+        // Se copia el sucesor in-order (el valor más pequeño del subárbol derecho) y se elimina el sucesor,
+        // que como mucho tiene un hijo derecho.
+        if (current.getLeft() != null && current.getRight() != null) {
+            BinaryNode<T> successorParent = current;
+            BinaryNode<T> successor = current.getRight();
+            while (successor.getLeft() != null) {
+                successorParent = successor;
+                successor = successor.getLeft();
+            }
+            current.setData(successor.getData());
+            parent = successorParent;
+            current = successor;
+        }
+
+        // Casos 1 y 2: Nodo sin hijos o con un solo hijo
+        BinaryNode<T> child = current.getLeft() != null ? current.getLeft() : current.getRight();
+        if (parent == null) {
+            root = child;
+        } else if (parent.getLeft() == current) {
+            parent.setLeft(child);
+        } else {
+            parent.setRight(child);
+        }
+    }
 } 
\ No newline at end of file
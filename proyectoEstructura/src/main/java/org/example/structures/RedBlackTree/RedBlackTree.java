@@ -1,223 +1,783 @@
-package org.example.structures.RedBlackTree;
-
-// No se usarán colecciones de Java para la estructura interna.
-// Se puede usar java.util.List o similar para devolver resultados de recorridos si se desea.
-import org.example.structures.doubleList.DoubleList; // Usar nuestra DoubleList
-import java.io.Serializable; // Importar
-
-public class RedBlackTree<T extends Comparable<T>> implements Serializable { // Implementar
-    private static final long serialVersionUID = 1L;
-    private RedBlackNode<T> root;
-    private final RedBlackNode<T> TNULL; // Nodo sentinela nulo
-
-    public RedBlackTree() {
-        TNULL = new RedBlackNode<>(null); // El tipo de dato de TNULL no importa realmente
-        TNULL.color = Color.BLACK;
-        TNULL.left = null;
-        TNULL.right = null;
-        root = TNULL;
-    }
-
-    private void leftRotate(RedBlackNode<T> x) {
-        RedBlackNode<T> y = x.right;
-        x.right = y.left;
-        if (y.left != TNULL) {
-            y.left.parent = x;
-        }
-        y.parent = x.parent;
-        if (x.parent == null) { // x era la raíz
-            this.root = y;
-        } else if (x == x.parent.left) {
-            x.parent.left = y;
-        } else {
-            x.parent.right = y;
-        }
-        y.left = x;
-        x.parent = y;
-    }
-
-    private void rightRotate(RedBlackNode<T> y) {
-        RedBlackNode<T> x = y.left;
-        y.left = x.right;
-        if (x.right != TNULL) {
-            x.right.parent = y;
-        }
-        x.parent = y.parent;
-        if (y.parent == null) { // y era la raíz
-            this.root = x;
-        } else if (y == y.parent.right) {
-            y.parent.right = x;
-        } else {
-            y.parent.left = x;
-        }
-        x.right = y;
-        y.parent = x;
-    }
-
-    public void insert(T key) {
-        RedBlackNode<T> node = new RedBlackNode<>(key);
-        node.parent = null;
-        node.data = key;
-        node.left = TNULL;
-        node.right = TNULL;
-        node.color = Color.RED; // Nuevos nodos son rojos
-
-        RedBlackNode<T> y = null;
-        RedBlackNode<T> x = this.root;
-
-        while (x != TNULL) {
-            y = x;
-            if (node.data.compareTo(x.data) < 0) {
-                x = x.left;
-            } else {
-                x = x.right;
-            }
-        }
-
-        node.parent = y;
-        if (y == null) { // Árbol estaba vacío
-            root = node;
-        } else if (node.data.compareTo(y.data) < 0) {
-            y.left = node;
-        } else {
-            y.right = node;
-        }
-
-        if (node.parent == null) { // Si es el primer nodo
-            node.color = Color.BLACK;
-            return;
-        }
-
-        if (node.parent.parent == null) { // Si el padre es la raíz
-            return;
-        }
-
-        fixInsert(node);
-    }
-
-    private void fixInsert(RedBlackNode<T> k) {
-        RedBlackNode<T> u;
-        while (k.parent.color == Color.RED) {
-            if (k.parent == k.parent.parent.right) { // Padre de k es hijo derecho del abuelo
-                u = k.parent.parent.left; // Tío de k
-                if (u.color == Color.RED) { // Caso 1: Tío es ROJO
-                    u.color = Color.BLACK;
-                    k.parent.color = Color.BLACK;
-                    k.parent.parent.color = Color.RED;
-                    k = k.parent.parent;
-                } else { // Tío es NEGRO
-                    if (k == k.parent.left) { // Caso 2: k es hijo izquierdo (Triángulo)
-                        k = k.parent;
-                        rightRotate(k);
-                    } // Caso 3: k es hijo derecho (Línea)
-                    k.parent.color = Color.BLACK;
-                    k.parent.parent.color = Color.RED;
-                    leftRotate(k.parent.parent);
-                }
-            } else { // Padre de k es hijo izquierdo del abuelo (simétrico al anterior)
-                u = k.parent.parent.right; // Tío de k
-                if (u.color == Color.RED) { // Caso 1: Tío es ROJO
-                    u.color = Color.BLACK;
-                    k.parent.color = Color.BLACK;
-                    k.parent.parent.color = Color.RED;
-                    k = k.parent.parent;
-                } else { // Tío es NEGRO
-                    if (k == k.parent.right) { // Caso 2: k es hijo derecho (Triángulo)
-                        k = k.parent;
-                        leftRotate(k);
-                    }
-                    // Caso 3: k es hijo izquierdo (Línea)
-                    k.parent.color = Color.BLACK;
-                    k.parent.parent.color = Color.RED;
-                    rightRotate(k.parent.parent);
-                }
-            }
-            if (k == root) {
-                break;
-            }
-        }
-        root.color = Color.BLACK;
-    }
-    
-    // --- Métodos de búsqueda y recorridos (pueden adaptarse de BinaryTree) ---
-    public T search(T data) {
-        return searchRecursive(this.root, data);
-    }
-
-    private T searchRecursive(RedBlackNode<T> node, T data) {
-        if (node == TNULL || data == null) {
-            return null;
-        }
-        int compareResult = data.compareTo(node.data);
-        if (compareResult == 0) {
-            return node.data;
-        }
-        if (compareResult < 0) {
-            return searchRecursive(node.left, data);
-        } else {
-            return searchRecursive(node.right, data);
-        }
-    }
-
-    public DoubleList<T> inOrderTraversal() {
-        DoubleList<T> result = new DoubleList<>();
-        inOrderRecursive(this.root, result);
-        return result;
-    }
-
-    private void inOrderRecursive(RedBlackNode<T> node, DoubleList<T> result) {
-        if (node != TNULL) {
-            inOrderRecursive(node.left, result);
-            result.addLast(node.data); // Añadir al final para orden in-order
-            inOrderRecursive(node.right, result);
-        }
-    }
-    
-    // Implementar preOrder y postOrder devolviendo DoubleList también
-    public DoubleList<T> preOrderTraversal() {
-        DoubleList<T> result = new DoubleList<>();
-        preOrderRecursive(this.root, result);
-        return result;
-    }
-
-    private void preOrderRecursive(RedBlackNode<T> node, DoubleList<T> result) {
-        if (node != TNULL) {
-            result.addLast(node.data);
-            preOrderRecursive(node.left, result);
-            preOrderRecursive(node.right, result);
-        }
-    }
-
-    public DoubleList<T> postOrderTraversal() {
-        DoubleList<T> result = new DoubleList<>();
-        postOrderRecursive(this.root, result);
-        return result;
-    }
-
-    private void postOrderRecursive(RedBlackNode<T> node, DoubleList<T> result) {
-        if (node != TNULL) {
-            postOrderRecursive(node.left, result);
-            postOrderRecursive(node.right, result);
-            result.addLast(node.data);
-        }
-    }
-    
-    // --- Eliminación (Esbozo, es la parte más compleja) ---
-    // El método de eliminación en un Árbol Rojo-Negro es significativamente más complejo
-    // debido a la necesidad de mantener las propiedades del árbol después de la eliminación.
-    // Implica reemplazar el nodo y luego llamar a una función fixDelete que maneja
-    // múltiples casos de recoloración y rotaciones.
-
-    // public void delete(T data) { ... } 
-    // private void fixDelete(RedBlackNode<T> x) { ... }
-    // private void transplant(RedBlackNode<T> u, RedBlackNode<T> v) { ... }
-    // private RedBlackNode<T> minimum(RedBlackNode<T> node) { ... } // Para encontrar el sucesor in-order
-
-    public boolean isEmpty() {
-        return root == TNULL;
-    }
-
-    public void clear() {
-        root = TNULL;
-    }
+package org.example.structures.RedBlackTree;
+
+// No se usarán colecciones de Java para la estructura interna.
+// Se puede usar java.util.List o similar para devolver resultados de recorridos si se desea.
+import org.example.structures.doubleList.DoubleList; // Usar nuestra DoubleList
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable; // Importar
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class RedBlackTree<T extends Comparable<T>> implements Iterable<T>, Serializable { // Implementar
+    private static final long serialVersionUID = 1L;
+    private RedBlackNode<T> root;
+    private final RedBlackNode<T> TNULL; // Nodo sentinela nulo
+    private transient int modCount; // Cambios estructurales, para detectar modificaciones durante un recorrido
+    // Orden del árbol; null usa el orden natural (compareTo). Los árboles guardados antes de existir este campo lo cargan a null.
+    private final Comparator<? super T> comparator;
+
+    public RedBlackTree() {
+        this(null);
+    }
+
+    /**
+     * @param comparator orden de los elementos; debe ser Serializable si el árbol se persiste.
+     *                   Con null se usa el orden natural de T.
+     */
+    public RedBlackTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        TNULL = new RedBlackNode<>(null); // El tipo de dato de TNULL no importa realmente
+        TNULL.color = Color.BLACK;
+        TNULL.left = null;
+        TNULL.right = null;
+        TNULL.size = 0;
+        root = TNULL;
+    }
+
+    /**
+     * Construye un árbol balanceado en O(n) a partir de elementos ya ordenados, sin comparaciones
+     * ni rotaciones de inserción. Todos los niveles completos quedan en negro y el último nivel
+     * (el único incompleto) en rojo, así todas las ramas tienen la misma altura negra.
+     * @param source elementos en orden ascendente (los iguales se conservan en el orden recibido).
+     * @param size número de elementos que se leerán de source.
+     * @return un árbol nuevo con esos elementos.
+     * @throws IllegalArgumentException si size es negativo o los elementos no están ordenados.
+     */
+    public static <T extends Comparable<T>> RedBlackTree<T> buildFromSorted(Iterator<? extends T> source, int size) {
+        return buildFromSorted(source, size, null);
+    }
+
+    public static <T extends Comparable<T>> RedBlackTree<T> buildFromSorted(Collection<? extends T> source) {
+        return buildFromSorted(source.iterator(), source.size(), null);
+    }
+
+    public static <T extends Comparable<T>> RedBlackTree<T> buildFromSorted(Collection<? extends T> source, Comparator<? super T> comparator) {
+        return buildFromSorted(source.iterator(), source.size(), comparator);
+    }
+
+    /**
+     * Igual que {@link #buildFromSorted(Iterator, int)}, pero el árbol resultante usa el comparador
+     * indicado; source debe venir ordenado según ese comparador.
+     */
+    public static <T extends Comparable<T>> RedBlackTree<T> buildFromSorted(Iterator<? extends T> source, int size, Comparator<? super T> comparator) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Tamaño negativo: " + size);
+        }
+        RedBlackTree<T> tree = new RedBlackTree<T>(comparator);
+        if (size == 0) {
+            return tree;
+        }
+        tree.root = tree.buildSubtree(0, 0, size - 1, redLevel(size), source);
+        tree.root.parent = null;
+
+        T previous = null;
+        for (T data : tree) {
+            if (previous != null && tree.compare(previous, data) > 0) {
+                throw new IllegalArgumentException("Los elementos no están ordenados: " + previous + " > " + data);
+            }
+            previous = data;
+        }
+        return tree;
+    }
+
+    // Construye el subárbol con los elementos lo..hi en in-order: primero el hijo izquierdo,
+    // luego el nodo (que consume el siguiente elemento) y después el derecho. Profundidad O(log n).
+    private RedBlackNode<T> buildSubtree(int level, int lo, int hi, int redLevel, Iterator<? extends T> source) {
+        int mid = (lo + hi) >>> 1;
+        RedBlackNode<T> left = lo < mid ? buildSubtree(level + 1, lo, mid - 1, redLevel, source) : TNULL;
+
+        RedBlackNode<T> node = new RedBlackNode<>(source.next());
+        node.color = level == redLevel ? Color.RED : Color.BLACK;
+        node.left = left;
+        if (left != TNULL) {
+            left.parent = node;
+        }
+
+        node.right = mid < hi ? buildSubtree(level + 1, mid + 1, hi, redLevel, source) : TNULL;
+        if (node.right != TNULL) {
+            node.right.parent = node;
+        }
+        node.size = hi - lo + 1;
+        return node;
+    }
+
+    // Profundidad del último nivel de un árbol casi completo de size nodos (la raíz está en el nivel 0)
+    private static int redLevel(int size) {
+        int level = 0;
+        for (int m = size - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    private int compare(T a, T b) {
+        return comparator != null ? comparator.compare(a, b) : a.compareTo(b);
+    }
+
+    private void leftRotate(RedBlackNode<T> x) {
+        RedBlackNode<T> y = x.right;
+        x.right = y.left;
+        if (y.left != TNULL) {
+            y.left.parent = x;
+        }
+        y.parent = x.parent;
+        if (x.parent == null) { // x era la raíz
+            this.root = y;
+        } else if (x == x.parent.left) {
+            x.parent.left = y;
+        } else {
+            x.parent.right = y;
+        }
+        y.left = x;
+        x.parent = y;
+        y.size = x.size;
+        x.size = x.left.size + x.right.size + 1;
+    }
+
+    private void rightRotate(RedBlackNode<T> y) {
+        RedBlackNode<T> x = y.left;
+        y.left = x.right;
+        if (x.right != TNULL) {
+            x.right.parent = y;
+        }
+        x.parent = y.parent;
+        if (y.parent == null) { // y era la raíz
+            this.root = x;
+        } else if (y == y.parent.right) {
+            y.parent.right = x;
+        } else {
+            y.parent.left = x;
+        }
+        x.right = y;
+        y.parent = x;
+        x.size = y.size;
+        y.size = y.left.size + y.right.size + 1;
+    }
+
+    public void insert(T key) {
+        RedBlackNode<T> node = new RedBlackNode<>(key);
+        node.parent = null;
+        node.data = key;
+        node.left = TNULL;
+        node.right = TNULL;
+        node.color = Color.RED; // Nuevos nodos son rojos
+        modCount++;
+
+        RedBlackNode<T> y = null;
+        RedBlackNode<T> x = this.root;
+
+        while (x != TNULL) {
+            y = x;
+            x.size++; // El nuevo nodo quedará dentro de este subárbol
+            if (compare(node.data, x.data) < 0) {
+                x = x.left;
+            } else {
+                x = x.right;
+            }
+        }
+
+        node.parent = y;
+        if (y == null) { // Árbol estaba vacío
+            root = node;
+        } else if (compare(node.data, y.data) < 0) {
+            y.left = node;
+        } else {
+            y.right = node;
+        }
+
+        if (node.parent == null) { // Si es el primer nodo
+            node.color = Color.BLACK;
+            return;
+        }
+
+        if (node.parent.parent == null) { // Si el padre es la raíz
+            return;
+        }
+
+        fixInsert(node);
+    }
+
+    private void fixInsert(RedBlackNode<T> k) {
+        RedBlackNode<T> u;
+        while (k.parent.color == Color.RED) {
+            if (k.parent == k.parent.parent.right) { // Padre de k es hijo derecho del abuelo
+                u = k.parent.parent.left; // Tío de k
+                if (u.color == Color.RED) { // Caso 1: Tío es ROJO
+                    u.color = Color.BLACK;
+                    k.parent.color = Color.BLACK;
+                    k.parent.parent.color = Color.RED;
+                    k = k.parent.parent;
+                } else { // Tío es NEGRO
+                    if (k == k.parent.left) { // Caso 2: k es hijo izquierdo (Triángulo)
+                        k = k.parent;
+                        rightRotate(k);
+                    } // Caso 3: k es hijo derecho (Línea)
+                    k.parent.color = Color.BLACK;
+                    k.parent.parent.color = Color.RED;
+                    leftRotate(k.parent.parent);
+                }
+            } else { // Padre de k es hijo izquierdo del abuelo (simétrico al anterior)
+                u = k.parent.parent.right; // Tío de k
+                if (u.color == Color.RED) { // Caso 1: Tío es ROJO
+                    u.color = Color.BLACK;
+                    k.parent.color = Color.BLACK;
+                    k.parent.parent.color = Color.RED;
+                    k = k.parent.parent;
+                } else { // Tío es NEGRO
+                    if (k == k.parent.right) { // Caso 2: k es hijo derecho (Triángulo)
+                        k = k.parent;
+                        leftRotate(k);
+                    }
+                    // Caso 3: k es hijo izquierdo (Línea)
+                    k.parent.color = Color.BLACK;
+                    k.parent.parent.color = Color.RED;
+                    rightRotate(k.parent.parent);
+                }
+            }
+            if (k == root) {
+                break;
+            }
+        }
+        root.color = Color.BLACK;
+    }
+    
+    // --- Métodos de búsqueda y recorridos ---
+    // Todos son iterativos: bajan por los hijos y suben por los punteros al padre,
+    // así que no consumen pila de llamadas aunque el árbol sea muy grande.
+    public T search(T data) {
+        if (data == null) {
+            return null;
+        }
+        RedBlackNode<T> node = this.root;
+        while (node != TNULL) {
+            int compareResult = compare(data, node.data);
+            if (compareResult == 0) {
+                return node.data;
+            }
+            node = compareResult < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    public DoubleList<T> inOrderTraversal() {
+        DoubleList<T> result = new DoubleList<>();
+        for (T data : this) {
+            result.addLast(data); // Añadir al final para orden in-order
+        }
+        return result;
+    }
+
+    /**
+     * Recorrido in-order perezoso: avanza de nodo en nodo usando los punteros al padre,
+     * sin copiar el árbol ni usar una pila. Permite cortar el recorrido en cuanto se
+     * encuentra lo buscado.
+     * @return un iterador sobre los elementos en orden ascendente.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RangeIterator(root == TNULL ? null : minimum(root), null);
+    }
+
+    // Recorre en orden desde un nodo hasta el primer elemento mayor o igual que to (sin límite si to es null)
+    private final class RangeIterator implements Iterator<T> {
+        private RedBlackNode<T> next;
+        private final T to;
+        private final int expectedModCount = modCount;
+
+        RangeIterator(RedBlackNode<T> first, T to) {
+            this.to = to;
+            this.next = bounded(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            T data = next.data;
+            next = bounded(successor(next));
+            return data;
+        }
+
+        private RedBlackNode<T> bounded(RedBlackNode<T> node) {
+            return node != null && to != null && compare(node.data, to) >= 0 ? null : node;
+        }
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    // --- Estadísticos de orden (cada nodo guarda el tamaño de su subárbol) ---
+
+    /**
+     * @return el número de elementos del árbol, en O(1).
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Devuelve el k-ésimo menor elemento, en O(log n).
+     * @param k posición en el recorrido in-order, empezando en 0.
+     * @return el elemento en esa posición.
+     * @throws IndexOutOfBoundsException si k está fuera de rango (k < 0 || k >= size()).
+     */
+    public T select(int k) {
+        return selectNode(k).data;
+    }
+
+    /**
+     * Cuenta los elementos estrictamente menores que key, en O(log n).
+     * Si key está en el árbol, coincide con su posición en el recorrido in-order.
+     * @param key valor de referencia.
+     * @return el número de elementos menores que key.
+     */
+    public int rank(T key) {
+        int rank = 0;
+        RedBlackNode<T> node = root;
+        while (key != null && node != TNULL) {
+            if (compare(key, node.data) <= 0) {
+                node = node.left;
+            } else {
+                rank += node.left.size + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Devuelve hasta limit elementos a partir de la posición offset, en O(log n + limit).
+     * Permite paginar el árbol sin recorrerlo desde el principio.
+     * @param offset posición del primer elemento, empezando en 0.
+     * @param limit número máximo de elementos a devolver.
+     * @return una lista con los elementos de la página; vacía si offset está fuera de rango.
+     */
+    public DoubleList<T> slice(int offset, int limit) {
+        DoubleList<T> result = new DoubleList<>();
+        if (offset < 0 || offset >= size()) {
+            return result;
+        }
+        for (RedBlackNode<T> node = selectNode(offset); node != null && result.size() < limit; node = successor(node)) {
+            result.addLast(node.data);
+        }
+        return result;
+    }
+
+    private RedBlackNode<T> selectNode(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Índice fuera de rango: " + k);
+        }
+        RedBlackNode<T> node = root;
+        while (true) {
+            int leftSize = node.left.size;
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // Los árboles guardados antes de existir el campo size lo traen a 0: se recalcula al cargar
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        TNULL.size = 0;
+        recomputeSizes();
+    }
+
+    // Recalcula el tamaño de cada subárbol; el post-order garantiza que los hijos ya están calculados
+    private void recomputeSizes() {
+        forEachNodePostOrder(node -> node.size = node.left.size + node.right.size + 1);
+    }
+
+    // Nodo con el menor valor del subárbol
+    private RedBlackNode<T> minimum(RedBlackNode<T> node) {
+        while (node.left != TNULL) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    // Sucesor in-order de un nodo, o null si es el último
+    private RedBlackNode<T> successor(RedBlackNode<T> node) {
+        if (node.right != TNULL) {
+            return minimum(node.right);
+        }
+        RedBlackNode<T> parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    // --- Navegación ordenada y consultas por rango ---
+    // Los rangos son vistas perezosas: no copian nada, cada iterador se posiciona en O(log n)
+    // y avanza con successor, así que recorrer k elementos cuesta O(log n + k) aunque el rango sea enorme.
+    // Como el iterador del árbol, fallan con ConcurrentModificationException si el árbol cambia mientras se recorren.
+
+    /**
+     * @param key valor de referencia.
+     * @return el mayor elemento menor o igual que key, o null si no existe.
+     */
+    public T floor(T key) {
+        RedBlackNode<T> node = floorNode(key);
+        return node == null ? null : node.data;
+    }
+
+    /**
+     * @param key valor de referencia.
+     * @return el menor elemento mayor o igual que key, o null si no existe.
+     */
+    public T ceiling(T key) {
+        RedBlackNode<T> node = ceilingNode(key);
+        return node == null ? null : node.data;
+    }
+
+    /**
+     * Elementos en el rango [from, to), en orden ascendente.
+     * @param from límite inferior (incluido).
+     * @param to límite superior (excluido).
+     * @return una vista perezosa del rango (vacía si algún límite es null).
+     */
+    public Iterable<T> subRange(T from, T to) {
+        if (from == null || to == null) {
+            return () -> new RangeIterator(null, null);
+        }
+        return () -> new RangeIterator(ceilingNode(from), to);
+    }
+
+    /**
+     * Elementos estrictamente menores que to, en orden ascendente.
+     * @param to límite superior (excluido).
+     * @return una vista perezosa del rango (vacía si to es null).
+     */
+    public Iterable<T> headRange(T to) {
+        if (to == null) {
+            return () -> new RangeIterator(null, null);
+        }
+        return () -> new RangeIterator(root == TNULL ? null : minimum(root), to);
+    }
+
+    /**
+     * Elementos mayores o iguales que from, en orden ascendente.
+     * @param from límite inferior (incluido).
+     * @return una vista perezosa del rango (vacía si from es null).
+     */
+    public Iterable<T> tailRange(T from) {
+        if (from == null) {
+            return () -> new RangeIterator(null, null);
+        }
+        return () -> new RangeIterator(ceilingNode(from), null);
+    }
+
+    /**
+     * Recorre los elementos que comparten un prefijo. Como todos ellos son contiguos en el
+     * orden del árbol, basta con posicionarse en el primero mayor o igual que el prefijo
+     * y avanzar mientras se cumpla la condición.
+     * @param prefixKey un elemento cuya clave de ordenación es el propio prefijo.
+     * @param hasPrefix condición que indica si un elemento comparte el prefijo.
+     * @return una lista con los elementos que comparten el prefijo, en orden ascendente.
+     */
+    public DoubleList<T> prefixScan(T prefixKey, Predicate<? super T> hasPrefix) {
+        DoubleList<T> result = new DoubleList<>();
+        if (prefixKey == null || hasPrefix == null) {
+            return result;
+        }
+        for (RedBlackNode<T> node = ceilingNode(prefixKey); node != null && hasPrefix.test(node.data); node = successor(node)) {
+            result.addLast(node.data);
+        }
+        return result;
+    }
+
+    // Nodo con el menor valor mayor o igual que key (el primero de los iguales, si hay varios)
+    private RedBlackNode<T> ceilingNode(T key) {
+        RedBlackNode<T> candidate = null;
+        RedBlackNode<T> node = root;
+        while (key != null && node != TNULL) {
+            if (compare(key, node.data) <= 0) {
+                candidate = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return candidate;
+    }
+
+    // Nodo con el mayor valor menor o igual que key (el último de los iguales, si hay varios)
+    private RedBlackNode<T> floorNode(T key) {
+        RedBlackNode<T> candidate = null;
+        RedBlackNode<T> node = root;
+        while (key != null && node != TNULL) {
+            if (compare(key, node.data) >= 0) {
+                candidate = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return candidate;
+    }
+
+    public DoubleList<T> preOrderTraversal() {
+        DoubleList<T> result = new DoubleList<>();
+        RedBlackNode<T> node = root == TNULL ? null : root;
+        while (node != null) {
+            result.addLast(node.data);
+            if (node.left != TNULL) {
+                node = node.left;
+            } else if (node.right != TNULL) {
+                node = node.right;
+            } else {
+                // Subir hasta un ancestro alcanzado por la izquierda que tenga hijo derecho pendiente
+                while (node.parent != null && (node == node.parent.right || node.parent.right == TNULL)) {
+                    node = node.parent;
+                }
+                node = node.parent == null ? null : node.parent.right;
+            }
+        }
+        return result;
+    }
+
+    public DoubleList<T> postOrderTraversal() {
+        DoubleList<T> result = new DoubleList<>();
+        forEachNodePostOrder(node -> result.addLast(node.data));
+        return result;
+    }
+
+    // Visita los nodos en post-order de forma iterativa, usando los punteros al padre
+    private void forEachNodePostOrder(Consumer<RedBlackNode<T>> action) {
+        if (root == TNULL) {
+            return;
+        }
+        RedBlackNode<T> node = root;
+        RedBlackNode<T> previous = null;
+        while (node != null) {
+            if (previous == node.parent) { // Bajando: visitar primero el hijo izquierdo, luego el derecho
+                if (node.left != TNULL) {
+                    previous = node;
+                    node = node.left;
+                    continue;
+                }
+                if (node.right != TNULL) {
+                    previous = node;
+                    node = node.right;
+                    continue;
+                }
+            } else if (previous == node.left && node.right != TNULL) { // Volviendo del hijo izquierdo
+                previous = node;
+                node = node.right;
+                continue;
+            }
+            // Ambos hijos procesados
+            RedBlackNode<T> parent = node.parent;
+            action.accept(node);
+            previous = node;
+            node = parent;
+        }
+    }
+
+    // --- Eliminación ---
+    // Tras quitar el nodo, fixDelete restaura las propiedades rojo-negro con recoloraciones
+    // y rotaciones. El tamaño de los subárboles se ajusta en el camino hasta la raíz.
+
+    /**
+     * Elimina del árbol el elemento igual (equals) a data, en O(log n).
+     * Si hay varios elementos que comparan igual, se busca entre ellos el que sea equals.
+     * @param data el elemento a eliminar.
+     * @return true si el elemento estaba en el árbol y fue eliminado.
+     */
+    public boolean delete(T data) {
+        RedBlackNode<T> z = findNode(data);
+        if (z == null) {
+            return false;
+        }
+        deleteNode(z);
+        return true;
+    }
+
+    /**
+     * Elimina todos los elementos que cumplen la condición. La condición solo debe consultar el
+     * elemento: se evalúa sobre todo el árbol antes de eliminar nada.
+     * @param filter condición de eliminación.
+     * @return los elementos eliminados, en orden ascendente.
+     */
+    public DoubleList<T> removeIf(Predicate<? super T> filter) {
+        DoubleList<T> toRemove = new DoubleList<>();
+        for (T data : this) {
+            if (filter.test(data)) {
+                toRemove.addLast(data);
+            }
+        }
+        DoubleList<T> removed = new DoubleList<>();
+        for (T data : toRemove) {
+            if (delete(data)) {
+                removed.addLast(data);
+            }
+        }
+        return removed;
+    }
+
+    // Estructura interna, para las comprobaciones de invariantes del mismo paquete (RedBlackTreeInvariantCheck)
+    RedBlackNode<T> rootNode() {
+        return root;
+    }
+
+    RedBlackNode<T> nilNode() {
+        return TNULL;
+    }
+
+    // Nodo cuyo dato es equals a data, o null si no está
+    private RedBlackNode<T> findNode(T data) {
+        for (RedBlackNode<T> node = ceilingNode(data); node != null && compare(data, node.data) == 0; node = successor(node)) {
+            if (data.equals(node.data)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void deleteNode(RedBlackNode<T> z) {
+        modCount++;
+        RedBlackNode<T> y = z; // Nodo que sale físicamente del árbol
+        if (z.left != TNULL && z.right != TNULL) {
+            y = minimum(z.right);
+        }
+        // Todos los ancestros de y pierden un nodo en su subárbol
+        for (RedBlackNode<T> n = y.parent; n != null; n = n.parent) {
+            n.size--;
+        }
+
+        RedBlackNode<T> x;
+        Color yOriginalColor = y.color;
+        if (z.left == TNULL) {
+            x = z.right;
+            transplant(z, z.right);
+        } else if (z.right == TNULL) {
+            x = z.left;
+            transplant(z, z.left);
+        } else {
+            x = y.right;
+            if (y.parent == z) {
+                x.parent = y; // x puede ser TNULL; fixDelete necesita su padre
+            } else {
+                transplant(y, y.right);
+                y.right = z.right;
+                y.right.parent = y;
+            }
+            transplant(z, y);
+            y.left = z.left;
+            y.left.parent = y;
+            y.color = z.color;
+            y.size = z.size;
+        }
+        if (yOriginalColor == Color.BLACK) {
+            fixDelete(x);
+        }
+    }
+
+    private void fixDelete(RedBlackNode<T> x) {
+        RedBlackNode<T> w;
+        while (x != root && x.color == Color.BLACK) {
+            if (x == x.parent.left) {
+                w = x.parent.right; // Hermano de x
+                if (w.color == Color.RED) { // Caso 1: hermano ROJO
+                    w.color = Color.BLACK;
+                    x.parent.color = Color.RED;
+                    leftRotate(x.parent);
+                    w = x.parent.right;
+                }
+                if (w.left.color == Color.BLACK && w.right.color == Color.BLACK) { // Caso 2: hijos del hermano NEGROS
+                    w.color = Color.RED;
+                    x = x.parent;
+                } else {
+                    if (w.right.color == Color.BLACK) { // Caso 3: hijo lejano NEGRO
+                        w.left.color = Color.BLACK;
+                        w.color = Color.RED;
+                        rightRotate(w);
+                        w = x.parent.right;
+                    }
+                    // Caso 4: hijo lejano ROJO
+                    w.color = x.parent.color;
+                    x.parent.color = Color.BLACK;
+                    w.right.color = Color.BLACK;
+                    leftRotate(x.parent);
+                    x = root;
+                }
+            } else { // Simétrico: x es hijo derecho
+                w = x.parent.left;
+                if (w.color == Color.RED) {
+                    w.color = Color.BLACK;
+                    x.parent.color = Color.RED;
+                    rightRotate(x.parent);
+                    w = x.parent.left;
+                }
+                if (w.right.color == Color.BLACK && w.left.color == Color.BLACK) {
+                    w.color = Color.RED;
+                    x = x.parent;
+                } else {
+                    if (w.left.color == Color.BLACK) {
+                        w.right.color = Color.BLACK;
+                        w.color = Color.RED;
+                        leftRotate(w);
+                        w = x.parent.left;
+                    }
+                    w.color = x.parent.color;
+                    x.parent.color = Color.BLACK;
+                    w.left.color = Color.BLACK;
+                    rightRotate(x.parent);
+                    x = root;
+                }
+            }
+        }
+        x.color = Color.BLACK;
+    }
+
+    // Reemplaza el subárbol con raíz u por el subárbol con raíz v
+    private void transplant(RedBlackNode<T> u, RedBlackNode<T> v) {
+        if (u.parent == null) {
+            root = v;
+        } else if (u == u.parent.left) {
+            u.parent.left = v;
+        } else {
+            u.parent.right = v;
+        }
+        v.parent = u.parent;
+    }
+
+    public boolean isEmpty() {
+        return root == TNULL;
+    }
+
+    public void clear() {
+        root = TNULL;
+        modCount++;
+    }
 } 
\ No newline at end of file
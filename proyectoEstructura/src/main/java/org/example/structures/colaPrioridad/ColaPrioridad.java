@@ -1,124 +1,199 @@
-package org.example.structures.colaPrioridad;
-
-import java.util.Arrays;
-import java.util.NoSuchElementException;
-import java.io.Serializable;
-
-// Implementación de una Cola de Prioridad utilizando un Min-Heap.
-// Los elementos con menor valor tienen mayor prioridad.
-public class ColaPrioridad<T extends Comparable<T>> implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private static final int DEFAULT_CAPACITY = 10;
-    private Object[] heap; // Usamos Object[] y hacemos casting, o T[] con supresión de advertencias
-    private int size;
-
-    @SuppressWarnings("unchecked")
-    public ColaPrioridad() {
-        heap = new Object[DEFAULT_CAPACITY];
-        size = 0;
-    }
-
-    public int size() {
-        return size;
-    }
-
-    public boolean isEmpty() {
-        return size == 0;
-    }
-
-    public void add(T elemento) {
-        if (elemento == null) {
-            throw new NullPointerException("El elemento no puede ser nulo.");
-        }
-        ensureCapacity();
-        heap[size] = elemento;
-        size++;
-        heapifyUp(size - 1);
-    }
-
-    @SuppressWarnings("unchecked")
-    public T peek() {
-        if (isEmpty()) {
-            throw new NoSuchElementException("La cola de prioridad está vacía.");
-        }
-        return (T) heap[0];
-    }
-
-    @SuppressWarnings("unchecked")
-    public T poll() {
-        if (isEmpty()) {
-            throw new NoSuchElementException("La cola de prioridad está vacía.");
-        }
-        T result = (T) heap[0];
-        heap[0] = heap[size - 1];
-        heap[size - 1] = null; // Ayudar al GC
-        size--;
-        if (size > 0) {
-            heapifyDown(0);
-        }
-        return result;
-    }
-
-    public void clear() {
-        for (int i = 0; i < size; i++) {
-            heap[i] = null;
-        }
-        size = 0;
-    }
-
-    private void ensureCapacity() {
-        if (size == heap.length) {
-            heap = Arrays.copyOf(heap, heap.length * 2);
-        }
-    }
-
-    private void heapifyUp(int index) {
-        int parentIndex = parent(index);
-        while (index > 0 && compare(heap[index], heap[parentIndex]) < 0) {
-            swap(index, parentIndex);
-            index = parentIndex;
-            parentIndex = parent(index);
-        }
-    }
-
-    private void heapifyDown(int index) {
-        int smallest = index;
-        int left = leftChild(index);
-        int right = rightChild(index);
-
-        if (left < size && compare(heap[left], heap[smallest]) < 0) {
-            smallest = left;
-        }
-        if (right < size && compare(heap[right], heap[smallest]) < 0) {
-            smallest = right;
-        }
-
-        if (smallest != index) {
-            swap(index, smallest);
-            heapifyDown(smallest);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private int compare(Object o1, Object o2) {
-        return ((T) o1).compareTo((T) o2);
-    }
-
-    private int parent(int i) {
-        return (i - 1) / 2;
-    }
-
-    private int leftChild(int i) {
-        return 2 * i + 1;
-    }
-
-    private int rightChild(int i) {
-        return 2 * i + 2;
-    }
-
-    private void swap(int i, int j) {
-        Object temp = heap[i];
-        heap[i] = heap[j];
-        heap[j] = temp;
-    }
+package org.example.structures.colaPrioridad;
+
+import org.example.structures.doubleList.DoubleList;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.function.Predicate;
+
+// Implementación de una Cola de Prioridad utilizando un Min-Heap.
+// Los elementos con menor valor tienen mayor prioridad.
+// Por defecto es binario; con una aridad mayor (p. ej. 4) el heap es menos profundo y los hijos
+// de un nodo quedan contiguos en el array, lo que reduce los fallos de caché en colas grandes.
+public class ColaPrioridad<T extends Comparable<T>> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int DEFAULT_ARITY = 2;
+    private Object[] heap; // Usamos Object[] y hacemos casting, o T[] con supresión de advertencias
+    private int size;
+    private int aridad; // Hijos por nodo; las colas guardadas antes de existir este campo lo cargan a 0
+
+    @SuppressWarnings("unchecked")
+    public ColaPrioridad() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * @param aridad número de hijos por nodo del heap (2 = binario, 4 = 4-ario...).
+     * @throws IllegalArgumentException si aridad es menor que 2.
+     */
+    public ColaPrioridad(int aridad) {
+        if (aridad < 2) {
+            throw new IllegalArgumentException("La aridad debe ser al menos 2: " + aridad);
+        }
+        heap = new Object[DEFAULT_CAPACITY];
+        size = 0;
+        this.aridad = aridad;
+    }
+
+    /**
+     * Construye la cola con todos los elementos de una vez (heapify de Floyd): se colocan en el array
+     * y se hunden los nodos internos de abajo arriba, en O(n) en lugar de las O(n log n) de n llamadas a add.
+     * @param elementos los elementos iniciales (ninguno puede ser null).
+     */
+    public ColaPrioridad(Collection<? extends T> elementos) {
+        this(elementos, DEFAULT_ARITY);
+    }
+
+    public ColaPrioridad(Collection<? extends T> elementos, int aridad) {
+        this(aridad);
+        heap = new Object[Math.max(DEFAULT_CAPACITY, elementos.size())];
+        for (T elemento : elementos) {
+            if (elemento == null) {
+                throw new NullPointerException("El elemento no puede ser nulo.");
+            }
+            heap[size++] = elemento;
+        }
+        for (int i = size > 1 ? parent(size - 1) : -1; i >= 0; i--) {
+            heapifyDown(i);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(T elemento) {
+        if (elemento == null) {
+            throw new NullPointerException("El elemento no puede ser nulo.");
+        }
+        ensureCapacity();
+        heap[size] = elemento;
+        size++;
+        heapifyUp(size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        return (T) heap[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        T result = (T) heap[0];
+        heap[0] = heap[size - 1];
+        heap[size - 1] = null; // Ayudar al GC
+        size--;
+        if (size > 0) {
+            heapifyDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Extrae, en orden de prioridad, hasta max elementos y los añade a destino.
+     * @return el número de elementos extraídos.
+     */
+    public int drainTo(Collection<? super T> destino, int max) {
+        int count = 0;
+        while (count < max && !isEmpty()) {
+            destino.add(poll());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Extrae, en orden de prioridad, los elementos mientras el primero cumpla la condición.
+     * @return los elementos extraídos, en el orden en que salieron.
+     */
+    public DoubleList<T> pollWhile(Predicate<? super T> condicion) {
+        DoubleList<T> result = new DoubleList<>();
+        while (!isEmpty() && condicion.test(peek())) {
+            result.addLast(poll());
+        }
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+    }
+
+    private void heapifyUp(int index) {
+        int parentIndex = parent(index);
+        while (index > 0 && compare(heap[index], heap[parentIndex]) < 0) {
+            swap(index, parentIndex);
+            index = parentIndex;
+            parentIndex = parent(index);
+        }
+    }
+
+    // Iterativo: baja el elemento mientras alguno de sus hijos sea menor
+    private void heapifyDown(int index) {
+        while (true) {
+            int smallest = index;
+            int first = firstChild(index);
+            int last = Math.min(first + aridad, size);
+            for (int child = first; child < last; child++) {
+                if (compare(heap[child], heap[smallest]) < 0) {
+                    smallest = child;
+                }
+            }
+
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object o1, Object o2) {
+        return ((T) o1).compareTo((T) o2);
+    }
+
+    private int parent(int i) {
+        return (i - 1) / aridad;
+    }
+
+    private int firstChild(int i) {
+        return aridad * i + 1;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (aridad < 2) {
+            aridad = DEFAULT_ARITY;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Object temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,215 @@
+package org.example.structures.colaPrioridad;
+
+import org.example.structures.doubleList.DoubleList;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+// Cola de prioridad (Min-Heap) que devuelve un Handle por cada elemento añadido.
+// Cada Handle conoce su posición actual en el heap, lo que permite eliminar un elemento
+// cualquiera en O(log n) (p. ej. cancelar una solicitud de la lista de espera), sin vaciar la cola.
+public class ColaPrioridadIndexada<T extends Comparable<T>> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 10;
+    private Handle<T>[] heap;
+    private int size;
+
+    /**
+     * Referencia a un elemento dentro de la cola. Deja de ser válido cuando el elemento sale de ella
+     * (por poll, remove o clear).
+     */
+    public static final class Handle<T> implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final T elemento;
+        private int index; // Posición en el heap; -1 si ya no está en la cola
+
+        private Handle(T elemento, int index) {
+            this.elemento = elemento;
+            this.index = index;
+        }
+
+        public T getElemento() {
+            return elemento;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public ColaPrioridadIndexada() {
+        heap = (Handle<T>[]) new Handle<?>[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Añade un elemento en O(log n).
+     * @return el Handle con el que se puede eliminar el elemento más adelante.
+     */
+    public Handle<T> add(T elemento) {
+        if (elemento == null) {
+            throw new NullPointerException("El elemento no puede ser nulo.");
+        }
+        ensureCapacity();
+        Handle<T> handle = new Handle<>(elemento, size);
+        heap[size] = handle;
+        size++;
+        heapifyUp(size - 1);
+        return handle;
+    }
+
+    public T peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        return heap[0].elemento;
+    }
+
+    public T poll() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        T result = heap[0].elemento;
+        removeAt(0);
+        return result;
+    }
+
+    /**
+     * @return true si el Handle pertenece a un elemento que sigue en esta cola. O(1).
+     */
+    public boolean contains(Handle<T> handle) {
+        return handle != null && handle.index >= 0 && handle.index < size && heap[handle.index] == handle;
+    }
+
+    /**
+     * Elimina el elemento del Handle en O(log n).
+     * @return true si estaba en la cola.
+     */
+    public boolean remove(Handle<T> handle) {
+        if (!contains(handle)) {
+            return false;
+        }
+        removeAt(handle.index);
+        return true;
+    }
+
+    /**
+     * Extrae, en orden de prioridad, hasta max elementos y los añade a destino.
+     * Los Handles de los elementos extraídos dejan de ser válidos.
+     * @return el número de elementos extraídos.
+     */
+    public int drainTo(Collection<? super T> destino, int max) {
+        int count = 0;
+        while (count < max && !isEmpty()) {
+            destino.add(poll());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return los Handles de todos los elementos de la cola, sin un orden concreto.
+     */
+    public DoubleList<Handle<T>> handles() {
+        DoubleList<Handle<T>> result = new DoubleList<>();
+        for (int i = 0; i < size; i++) {
+            result.addLast(heap[i]);
+        }
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i].index = -1;
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    // Quita el elemento de la posición index poniendo el último en su lugar y recolocándolo
+    private void removeAt(int index) {
+        Handle<T> removed = heap[index];
+        size--;
+        if (index != size) {
+            Handle<T> moved = heap[size];
+            heap[index] = moved;
+            moved.index = index;
+            heap[size] = null;
+            heapifyUp(index);
+            if (moved.index == index) {
+                heapifyDown(index);
+            }
+        } else {
+            heap[size] = null; // Ayudar al GC
+        }
+        removed.index = -1;
+    }
+
+    private void ensureCapacity() {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+    }
+
+    private void heapifyUp(int index) {
+        int parentIndex = parent(index);
+        while (index > 0 && compare(heap[index], heap[parentIndex]) < 0) {
+            swap(index, parentIndex);
+            index = parentIndex;
+            parentIndex = parent(index);
+        }
+    }
+
+    private void heapifyDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = leftChild(index);
+            int right = rightChild(index);
+
+            if (left < size && compare(heap[left], heap[smallest]) < 0) {
+                smallest = left;
+            }
+            if (right < size && compare(heap[right], heap[smallest]) < 0) {
+                smallest = right;
+            }
+
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private int compare(Handle<T> h1, Handle<T> h2) {
+        return h1.elemento.compareTo(h2.elemento);
+    }
+
+    private int parent(int i) {
+        return (i - 1) / 2;
+    }
+
+    private int leftChild(int i) {
+        return 2 * i + 1;
+    }
+
+    private int rightChild(int i) {
+        return 2 * i + 2;
+    }
+
+    // Intercambia dos posiciones manteniendo actualizado el índice de cada Handle
+    private void swap(int i, int j) {
+        Handle<T> temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.structures.colaPrioridad;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Cola de prioridad (Min-Heap d-ario) cuya prioridad es un long guardado aparte del elemento,
+// p. ej. el instante de la solicitud en milisegundos. Los desplazamientos del heap comparan
+// primitivos en un long[] contiguo, sin llamar a compareTo ni acceder a los objetos.
+// A igual prioridad no se garantiza ningún orden entre los elementos.
+public class ColaPrioridadLong<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int DEFAULT_ARITY = 4;
+    private long[] prioridades;
+    private Object[] elementos; // elementos[i] tiene la prioridad prioridades[i]
+    private int size;
+    private final int aridad;
+
+    public ColaPrioridadLong() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * @param aridad número de hijos por nodo del heap (2 = binario, 4 = 4-ario...).
+     * @throws IllegalArgumentException si aridad es menor que 2.
+     */
+    public ColaPrioridadLong(int aridad) {
+        if (aridad < 2) {
+            throw new IllegalArgumentException("La aridad debe ser al menos 2: " + aridad);
+        }
+        this.aridad = aridad;
+        prioridades = new long[DEFAULT_CAPACITY];
+        elementos = new Object[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Añade un elemento con la prioridad dada (menor valor = mayor prioridad), en O(log n).
+     */
+    public void add(long prioridad, T elemento) {
+        if (elemento == null) {
+            throw new NullPointerException("El elemento no puede ser nulo.");
+        }
+        ensureCapacity();
+        siftUp(size, prioridad, elemento);
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        return (T) elementos[0];
+    }
+
+    /**
+     * @return la prioridad del elemento que devolvería peek().
+     */
+    public long peekPrioridad() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        return prioridades[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("La cola de prioridad está vacía.");
+        }
+        T result = (T) elementos[0];
+        size--;
+        long ultimaPrioridad = prioridades[size];
+        Object ultimo = elementos[size];
+        elementos[size] = null; // Ayudar al GC
+        if (size > 0) {
+            siftDown(0, ultimaPrioridad, ultimo);
+        }
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(elementos, 0, size, null);
+        size = 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == elementos.length) {
+            prioridades = Arrays.copyOf(prioridades, prioridades.length * 2);
+            elementos = Arrays.copyOf(elementos, elementos.length * 2);
+        }
+    }
+
+    // Sube el hueco desde index hasta la posición del nuevo elemento, moviendo los padres hacia abajo
+    // en lugar de hacer intercambios completos
+    private void siftUp(int index, long prioridad, Object elemento) {
+        while (index > 0) {
+            int parent = (index - 1) / aridad;
+            if (prioridades[parent] <= prioridad) {
+                break;
+            }
+            prioridades[index] = prioridades[parent];
+            elementos[index] = elementos[parent];
+            index = parent;
+        }
+        prioridades[index] = prioridad;
+        elementos[index] = elemento;
+    }
+
+    // Baja el hueco desde index eligiendo en cada nivel el menor de los hijos (contiguos en el array)
+    private void siftDown(int index, long prioridad, Object elemento) {
+        while (true) {
+            int first = aridad * index + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + aridad, size);
+            int smallest = first;
+            long smallestPrioridad = prioridades[first];
+            for (int child = first + 1; child < last; child++) {
+                if (prioridades[child] < smallestPrioridad) {
+                    smallest = child;
+                    smallestPrioridad = prioridades[child];
+                }
+            }
+            if (prioridad <= smallestPrioridad) {
+                break;
+            }
+            prioridades[index] = smallestPrioridad;
+            elementos[index] = elementos[smallest];
+            index = smallest;
+        }
+        prioridades[index] = prioridad;
+        elementos[index] = elemento;
+    }
+}
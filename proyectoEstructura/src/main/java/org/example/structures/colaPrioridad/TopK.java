@@ -0,0 +1,134 @@
+package org.example.structures.colaPrioridad;
+
+import org.example.structures.doubleList.DoubleList;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Selecciona los k mejores elementos de una secuencia sin ordenarla entera: mantiene un heap acotado
+// a k elementos cuya raíz es el peor de los seleccionados, y cada elemento nuevo solo entra si es mejor
+// que ella. Recorrer n elementos cuesta O(n log k) y O(min(n, k)) de memoria.
+// Es estable: entre elementos empatados se quedan y salen primero los que se ofrecieron antes,
+// igual que al ordenar la lista completa con un ordenamiento estable y quedarse con los k primeros.
+public class TopK<T> {
+    private static final int INITIAL_CAPACITY = 16;
+    private final int k;
+    private final Comparator<? super T> orden;
+    // Los arrays crecen al doble según llegan elementos, hasta k: un k enorme (p. ej. "los N mejores"
+    // con N elegido por el usuario) no reserva memoria que nunca se va a usar
+    private Object[] heap; // heap[0] es el peor de los seleccionados
+    private long[] secuencia; // Orden de llegada de heap[i], para desempatar
+    private int size;
+    private long siguiente;
+
+    /**
+     * @param k número máximo de elementos a seleccionar.
+     * @param orden orden del ranking: compare(a, b) < 0 si a va antes (es mejor) que b.
+     * @throws IllegalArgumentException si k es negativo.
+     */
+    public TopK(int k, Comparator<? super T> orden) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k no puede ser negativo: " + k);
+        }
+        this.k = k;
+        this.orden = orden;
+        this.heap = new Object[Math.min(k, INITIAL_CAPACITY)];
+        this.secuencia = new long[heap.length];
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Ofrece un elemento en O(log k).
+     * @return true si de momento está entre los k mejores.
+     */
+    public boolean offer(T elemento) {
+        long seq = siguiente++;
+        if (size < k) {
+            if (size == heap.length) {
+                int capacidad = (int) Math.min(k, 2L * heap.length);
+                heap = Arrays.copyOf(heap, capacidad);
+                secuencia = Arrays.copyOf(secuencia, capacidad);
+            }
+            siftUp(size, elemento, seq);
+            size++;
+            return true;
+        }
+        if (k == 0 || !isWorse(heap[0], secuencia[0], elemento, seq)) {
+            return false; // No mejora al peor seleccionado (a igualdad, gana el que llegó antes)
+        }
+        siftDown(0, elemento, seq);
+        return true;
+    }
+
+    /**
+     * @return los elementos seleccionados del mejor al peor. Vacía la selección.
+     */
+    @SuppressWarnings("unchecked")
+    public DoubleList<T> drainOrdered() {
+        Object[] ordenados = new Object[size];
+        // Se extrae siempre el peor, así que se rellena desde el final
+        for (int i = size - 1; i >= 0; i--) {
+            ordenados[i] = heap[0];
+            size--;
+            if (size > 0) {
+                siftDown(0, heap[size], secuencia[size]);
+            }
+            heap[size] = null; // Ayudar al GC
+        }
+        DoubleList<T> result = new DoubleList<>();
+        for (Object elemento : ordenados) {
+            result.addLast((T) elemento);
+        }
+        return result;
+    }
+
+    // true si (a, seqA) va detrás de (b, seqB) en el ranking
+    @SuppressWarnings("unchecked")
+    private boolean isWorse(Object a, long seqA, Object b, long seqB) {
+        int cmp = orden.compare((T) a, (T) b);
+        return cmp > 0 || (cmp == 0 && seqA > seqB);
+    }
+
+    private void siftUp(int index, Object elemento, long seq) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isWorse(elemento, seq, heap[parent], secuencia[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            secuencia[index] = secuencia[parent];
+            index = parent;
+        }
+        heap[index] = elemento;
+        secuencia[index] = seq;
+    }
+
+    private void siftDown(int index, Object elemento, long seq) {
+        while (true) {
+            int worst = 2 * index + 1;
+            if (worst >= size) {
+                break;
+            }
+            int right = worst + 1;
+            if (right < size && isWorse(heap[right], secuencia[right], heap[worst], secuencia[worst])) {
+                worst = right;
+            }
+            if (!isWorse(heap[worst], secuencia[worst], elemento, seq)) {
+                break;
+            }
+            heap[index] = heap[worst];
+            secuencia[index] = secuencia[worst];
+            index = worst;
+        }
+        heap[index] = elemento;
+        secuencia[index] = seq;
+    }
+}
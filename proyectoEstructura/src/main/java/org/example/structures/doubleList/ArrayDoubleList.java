@@ -0,0 +1,243 @@
+package org.example.structures.doubleList;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Variante de DoubleList respaldada por un arreglo circular.
+ * Ofrece la misma API pública que DoubleList, pero con acceso por índice (get/set) en O(1)
+ * e inserción/eliminación en ambos extremos en O(1) amortizado. Es la opción adecuada para
+ * listas que se recorren o se ordenan con get(i)/set(i).
+ */
+public class ArrayDoubleList<T> implements Iterable<T>, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 10;
+    private Object[] elements;
+    private int head; // Posición física del primer elemento
+    private int size;
+
+    public ArrayDoubleList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayDoubleList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacidad inicial inválida: " + initialCapacity);
+        }
+        this.elements = new Object[Math.max(initialCapacity, 1)];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void addFirst(T data) {
+        ensureCapacity();
+        head = (head - 1 + elements.length) % elements.length;
+        elements[head] = data;
+        size++;
+    }
+
+    public void addLast(T data) {
+        ensureCapacity();
+        elements[physicalIndex(size)] = data;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("List is empty");
+        }
+        T data = (T) elements[head];
+        elements[head] = null; // Ayudar al GC
+        head = (head + 1) % elements.length;
+        size--;
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("List is empty");
+        }
+        int last = physicalIndex(size - 1);
+        T data = (T) elements[last];
+        elements[last] = null;
+        size--;
+        return data;
+    }
+
+    public boolean remove(T data) {
+        int index = indexOf(data);
+        if (index == -1) {
+            return false;
+        }
+        removeAtIndex(index);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peekFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("List is empty");
+        }
+        return (T) elements[head];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peekLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("List is empty");
+        }
+        return (T) elements[physicalIndex(size - 1)];
+    }
+
+    public boolean contains(T data) {
+        return indexOf(data) != -1;
+    }
+
+    private int indexOf(T data) {
+        for (int i = 0; i < size; i++) {
+            Object current = elements[physicalIndex(i)];
+            if ((data == null && current == null) || (data != null && data.equals(current))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[physicalIndex(i)] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice fuera de rango: " + index);
+        }
+        return (T) elements[physicalIndex(index)];
+    }
+
+    /**
+     * Reemplaza el elemento en la posición especificada en esta lista con el elemento especificado.
+     * @param index índice del elemento a reemplazar.
+     * @param data elemento a ser almacenado en la posición especificada.
+     * @return el elemento previamente en la posición especificada.
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango (index < 0 || index >= size()).
+     */
+    @SuppressWarnings("unchecked")
+    public T set(int index, T data) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice fuera de rango: " + index);
+        }
+        int physical = physicalIndex(index);
+        T oldData = (T) elements[physical];
+        elements[physical] = data;
+        return oldData;
+    }
+
+    public void add(T data, int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (index == 0) {
+            addFirst(data);
+        } else if (index == size) {
+            addLast(data);
+        } else {
+            ensureCapacity();
+            // Desplazar hacia la derecha los elementos posteriores al índice
+            for (int i = size; i > index; i--) {
+                elements[physicalIndex(i)] = elements[physicalIndex(i - 1)];
+            }
+            elements[physicalIndex(index)] = data;
+            size++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T removeAtIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (index == 0) {
+            return removeFirst();
+        }
+        if (index == size - 1) {
+            return removeLast();
+        }
+        T data = (T) elements[physicalIndex(index)];
+        // Desplazar hacia la izquierda los elementos posteriores al índice
+        for (int i = index; i < size - 1; i++) {
+            elements[physicalIndex(i)] = elements[physicalIndex(i + 1)];
+        }
+        elements[physicalIndex(size - 1)] = null;
+        size--;
+        return data;
+    }
+
+    /**
+     * Copia el contenido a una DoubleList, para los métodos que deben devolver ese tipo.
+     * @return una nueva DoubleList con los mismos elementos y en el mismo orden.
+     */
+    public DoubleList<T> toDoubleList() {
+        DoubleList<T> result = new DoubleList<>();
+        for (int i = 0; i < size; i++) {
+            result.addLast(get(i));
+        }
+        return result;
+    }
+
+    private int physicalIndex(int index) {
+        int physical = head + index;
+        return physical < elements.length ? physical : physical - elements.length;
+    }
+
+    private void ensureCapacity() {
+        if (size == elements.length) {
+            Object[] newElements = new Object[elements.length * 2];
+            for (int i = 0; i < size; i++) {
+                newElements[i] = elements[physicalIndex(i)];
+            }
+            elements = newElements;
+            head = 0;
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Remove operation is not supported.");
+            }
+        };
+    }
+}
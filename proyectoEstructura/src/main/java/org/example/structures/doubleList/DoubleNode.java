@@ -1,40 +1,40 @@
-package org.example.structures.doubleList;
-
-import java.io.Serializable;
-
-public class DoubleNode<T> implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private T data;
-    private DoubleNode<T> next;
-    private DoubleNode<T> prev;
-
-    public DoubleNode(T data) {
-        this.data = data;
-        this.next = null;
-        this.prev = null;
-    }
-
-    public T getData() {
-        return data;
-    }
-
-    public void setData(T data) {
-        this.data = data;
-    }
-
-    public DoubleNode<T> getNext() {
-        return next;
-    }
-
-    public void setNext(DoubleNode<T> next) {
-        this.next = next;
-    }
-
-    public DoubleNode<T> getPrev() {
-        return prev;
-    }
-
-    public void setPrev(DoubleNode<T> prev) {
-        this.prev = prev;
-    }
+package org.example.structures.doubleList;
+
+import java.io.Serializable;
+
+public class DoubleNode<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private T data;
+    private DoubleNode<T> next;
+    private DoubleNode<T> prev;
+
+    public DoubleNode(T data) {
+        this.data = data;
+        this.next = null;
+        this.prev = null;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+
+    public DoubleNode<T> getNext() {
+        return next;
+    }
+
+    public void setNext(DoubleNode<T> next) {
+        this.next = next;
+    }
+
+    public DoubleNode<T> getPrev() {
+        return prev;
+    }
+
+    public void setPrev(DoubleNode<T> prev) {
+        this.prev = prev;
+    }
 } 
\ No newline at end of file
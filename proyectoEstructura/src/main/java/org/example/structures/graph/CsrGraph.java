@@ -0,0 +1,430 @@
+package org.example.structures.graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantánea inmutable de un Graph en formato CSR (compressed sparse row).
+ * Cada vértice recibe un id denso 0..n-1 y los vecinos de todos los vértices se guardan seguidos
+ * en un único int[]: los de id están en targets[offsets[id]] .. targets[offsets[id + 1] - 1].
+ * Recorrer vecinos es leer un tramo contiguo de enteros, sin nodos ni objetos intermedios,
+ * y ocupa una fracción de la memoria de una DoubleList por vértice.
+ * Como es inmutable, puede leerse desde varios hilos sin sincronización.
+ */
+public final class CsrGraph<T extends Serializable> {
+    private final Graph<T> source;
+    private final long version;
+    private final Object[] vertices; // id -> vértice
+    private final Map<T, Integer> ids; // vértice -> id
+    private final int[] offsets; // Tamaño n + 1
+    private final int[] targets; // Tamaño 2 * aristas (cada arista no dirigida aparece en ambos extremos)
+    // Componentes conexas, etiquetadas al construir la instantánea: las consultas solo leen
+    private final int[] componente; // id -> número de su componente
+    private final int[] tamanos; // número de componente -> vértices que tiene
+
+    private CsrGraph(Graph<T> source, long version, Object[] vertices, Map<T, Integer> ids, int[] offsets, int[] targets) {
+        this.source = source;
+        this.version = version;
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.componente = new int[vertices.length];
+        this.tamanos = labelComponents(offsets, targets, componente);
+    }
+
+    // Una BFS desde cada vértice aún sin etiquetar recorre su componente entera: O(V + E) en total
+    private static int[] labelComponents(int[] offsets, int[] targets, int[] componente) {
+        int n = componente.length;
+        Arrays.fill(componente, -1);
+        int[] cola = new int[n];
+        int[] tamanos = new int[n];
+        int numComponentes = 0;
+        for (int origen = 0; origen < n; origen++) {
+            if (componente[origen] >= 0) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            cola[tail++] = origen;
+            componente[origen] = numComponentes;
+            while (head < tail) {
+                int current = cola[head++];
+                for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                    int neighbor = targets[e];
+                    if (componente[neighbor] < 0) {
+                        componente[neighbor] = numComponentes;
+                        cola[tail++] = neighbor;
+                    }
+                }
+            }
+            tamanos[numComponentes++] = tail;
+        }
+        return Arrays.copyOf(tamanos, numComponentes);
+    }
+
+    /**
+     * Construye la instantánea del grafo en O(V + E).
+     * @param graph el grafo de origen.
+     * @return la instantánea, que no refleja los cambios posteriores del grafo (ver {@link #isCurrent}).
+     */
+    public static <T extends Serializable> CsrGraph<T> of(Graph<T> graph) {
+        int n = graph.getVertices().size();
+        Object[] vertices = new Object[n];
+        Map<T, Integer> ids = new HashMap<>(n * 2);
+        int next = 0;
+        for (T vertex : graph.getVertices()) {
+            vertices[next] = vertex;
+            ids.put(vertex, next);
+            next++;
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int id = 0; id < n; id++) {
+            offsets[id + 1] = offsets[id] + graph.degree(vertexAt(vertices, id));
+        }
+        int[] targets = new int[offsets[n]];
+        for (int id = 0; id < n; id++) {
+            int pos = offsets[id];
+            for (T neighbor : graph.getNeighbors(vertexAt(vertices, id))) {
+                targets[pos++] = ids.get(neighbor);
+            }
+        }
+        return new CsrGraph<>(graph, graph.getVersion(), vertices, ids, offsets, targets);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T vertexAt(Object[] vertices, int id) {
+        return (T) vertices[id];
+    }
+
+    /**
+     * @return true si la instantánea se hizo de este grafo y el grafo no ha cambiado desde entonces.
+     */
+    public boolean isCurrent(Graph<T> graph) {
+        return graph == source && graph.getVersion() == version;
+    }
+
+    /**
+     * @return el número de vértices.
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * @return el número de aristas no dirigidas.
+     */
+    public int edgeCount() {
+        return targets.length / 2;
+    }
+
+    /**
+     * @return el id denso del vértice, o -1 si no está en la instantánea.
+     */
+    public int idOf(T vertex) {
+        Integer id = vertex == null ? null : ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    public T vertex(int id) {
+        return vertexAt(vertices, id);
+    }
+
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Primera posición de los vecinos de id; junto con {@link #edgeEnd} delimita el tramo de
+     * {@link #target} que contiene sus vecinos.
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Comprueba la arista recorriendo el tramo de vecinos del extremo de menor grado: O(min(grado)).
+     * @return true si a y b son vecinos; false si alguno es -1 (no está en la instantánea).
+     */
+    public boolean hasEdge(int a, int b) {
+        if (a < 0 || b < 0) {
+            return false;
+        }
+        if (degree(b) < degree(a)) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        for (int e = offsets[a]; e < offsets[a + 1]; e++) {
+            if (targets[e] == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param edge posición entre edgeStart(id) (incluida) y edgeEnd(id) (excluida).
+     * @return el id del vecino en esa posición.
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    // --- Componentes conexas: O(1) por consulta ---
+
+    /**
+     * @return true si hay un camino entre los dos vértices (un vértice siempre está conectado consigo mismo).
+     */
+    public boolean isConnected(int a, int b) {
+        return componente[a] == componente[b];
+    }
+
+    /**
+     * @return el número de vértices de la componente conexa de id (1 si no tiene vecinos).
+     */
+    public int componentSize(int id) {
+        return tamanos[componente[id]];
+    }
+
+    /**
+     * @return el número de componentes conexas; cada vértice aislado cuenta como una.
+     */
+    public int componentCount() {
+        return tamanos.length;
+    }
+
+    /**
+     * @return el tamaño de cada componente conexa, de mayor a menor.
+     */
+    public List<Integer> getComponentSizes() {
+        List<Integer> sizes = new ArrayList<>(tamanos.length);
+        for (int tamano : tamanos) {
+            sizes.add(tamano);
+        }
+        sizes.sort(Collections.reverseOrder());
+        return sizes;
+    }
+
+    // --- Búsquedas en anchura: O(V + E) ---
+    // Las colas, predecesores y marcas de visitado salen de dos Workspace por hilo que se reutilizan
+    // entre consultas, así que una búsqueda no reserva memoria salvo el resultado que devuelve.
+    // Las búsquedas no son reentrantes: un DistanceVisitor no debe lanzar otra búsqueda en el mismo hilo.
+
+    private static final ThreadLocal<Workspace[]> WORKSPACES =
+            ThreadLocal.withInitial(() -> new Workspace[]{new Workspace(), new Workspace()});
+
+    /**
+     * Recibe cada vértice alcanzado por {@link #distancesFrom} y su distancia en aristas.
+     */
+    @FunctionalInterface
+    public interface DistanceVisitor {
+        void visit(int id, int distance);
+    }
+
+    /**
+     * Camino más corto (en número de aristas) entre dos vértices, con una BFS desde source.
+     * @param maxDepth longitud máxima del camino; la búsqueda no pasa de esa profundidad.
+     * @return los ids del camino de source a target (ambos incluidos), o un array vacío si no hay
+     *         ningún camino de como mucho maxDepth aristas.
+     */
+    public int[] shortestPath(int source, int target, int maxDepth) {
+        if (source == target) {
+            return new int[]{source};
+        }
+        Workspace frontier = WORKSPACES.get()[0].start(size(), source);
+        while (frontier.depth < maxDepth && !frontier.isEmpty()) {
+            int found = frontier.expandLevel(offsets, targets, target, null, null);
+            if (found >= 0) {
+                return buildPath(frontier, found, null);
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Igual que {@link #shortestPath}, pero avanza a la vez desde los dos extremos, expandiendo cada vez
+     * la frontera más pequeña. En redes grandes explora del orden de la raíz cuadrada de los vértices
+     * que visitaría una BFS desde un solo extremo.
+     */
+    public int[] shortestPathBidirectional(int source, int target, int maxDepth) {
+        if (source == target) {
+            return new int[]{source};
+        }
+        Workspace[] pool = WORKSPACES.get();
+        Workspace forward = pool[0].start(size(), source);
+        Workspace backward = pool[1].start(size(), target);
+        while (forward.depth + backward.depth < maxDepth && !forward.isEmpty() && !backward.isEmpty()) {
+            // Mientras las dos zonas visitadas no se tocan, el primer vértice común que aparece al expandir
+            // un nivel completo da un camino mínimo: todos los cruces de ese nivel tienen la misma longitud
+            if (forward.pendingCount() <= backward.pendingCount()) {
+                int meet = forward.expandLevel(offsets, targets, -1, backward, null);
+                if (meet >= 0) {
+                    return buildPath(forward, meet, backward);
+                }
+            } else {
+                int meet = backward.expandLevel(offsets, targets, -1, forward, null);
+                if (meet >= 0) {
+                    return buildPath(forward, meet, backward);
+                }
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Recorre en una sola BFS todos los vértices a como mucho maxDepth aristas de alguno de los orígenes,
+     * en orden de distancia creciente. Cada vértice se visita una vez, con la distancia a su origen más cercano;
+     * los propios orígenes se visitan con distancia 0.
+     * @param sources ids de los vértices de partida; los repetidos se ignoran.
+     */
+    public void distancesFrom(int[] sources, int maxDepth, DistanceVisitor visitor) {
+        Workspace frontier = WORKSPACES.get()[0].start(size(), sources);
+        for (int i = 0; i < frontier.tail; i++) {
+            visitor.visit(frontier.queue[i], 0);
+        }
+        while (frontier.depth < maxDepth && !frontier.isEmpty()) {
+            frontier.expandLevel(offsets, targets, -1, null, visitor);
+        }
+    }
+
+    /**
+     * Distancia en aristas desde source a cada vértice alcanzable en como mucho maxDepth aristas.
+     * @return un array indexado por id con la distancia, o -1 para los vértices no alcanzados.
+     */
+    public int[] distancesFrom(int source, int maxDepth) {
+        int[] distances = new int[size()];
+        Arrays.fill(distances, -1);
+        distancesFrom(new int[]{source}, maxDepth, (id, distance) -> distances[id] = distance);
+        return distances;
+    }
+
+    // Camino source -> meet siguiendo los predecesores de forward y, si hay backward, meet -> su origen
+    private static int[] buildPath(Workspace forward, int meet, Workspace backward) {
+        int lengthForward = 0;
+        for (int v = meet; v != forward.queue[0]; v = forward.pred[v]) {
+            lengthForward++;
+        }
+        int lengthBackward = 0;
+        if (backward != null) {
+            for (int v = meet; v != backward.queue[0]; v = backward.pred[v]) {
+                lengthBackward++;
+            }
+        }
+        int[] path = new int[lengthForward + lengthBackward + 1];
+        int pos = lengthForward;
+        for (int v = meet; ; v = forward.pred[v]) {
+            path[pos--] = v;
+            if (v == forward.queue[0]) {
+                break;
+            }
+        }
+        pos = lengthForward + 1;
+        if (backward != null) {
+            for (int v = meet; v != backward.queue[0]; ) {
+                v = backward.pred[v];
+                path[pos++] = v;
+            }
+        }
+        return path;
+    }
+
+    // Estado de una BFS por niveles: cola en un int[] (cada vértice entra una sola vez) y predecesor de
+    // cada vértice visitado. Un vértice está visitado si su marca coincide con la época actual, así que
+    // empezar una búsqueda nueva solo incrementa la época en lugar de limpiar un array de tamaño n.
+    private static final class Workspace {
+        int[] queue = new int[0];
+        int[] pred = new int[0];
+        int[] stamp = new int[0];
+        int epoch;
+        int head;
+        int tail;
+        int depth; // Profundidad de los vértices entre head y tail
+
+        Workspace start(int n, int origin) {
+            reset(n);
+            enqueue(origin);
+            return this;
+        }
+
+        Workspace start(int n, int[] origins) {
+            reset(n);
+            for (int origin : origins) {
+                if (stamp[origin] != epoch) {
+                    enqueue(origin);
+                }
+            }
+            return this;
+        }
+
+        private void reset(int n) {
+            if (stamp.length < n) { // Crece solo cuando aparece un grafo mayor que los anteriores
+                queue = new int[n];
+                pred = new int[n];
+                stamp = new int[n];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == 0) { // Tras dar la vuelta, las marcas antiguas podrían coincidir con la nueva época
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            head = 0;
+            tail = 0;
+            depth = 0;
+        }
+
+        private void enqueue(int origin) {
+            stamp[origin] = epoch;
+            pred[origin] = origin;
+            queue[tail++] = origin;
+        }
+
+        boolean isVisited(int v) {
+            return stamp[v] == epoch;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        int pendingCount() {
+            return tail - head;
+        }
+
+        // Expande el nivel actual avisando a visitor (si lo hay) de cada vértice nuevo.
+        // Devuelve el primero que sea target o que ya hubiera visitado other, o -1
+        int expandLevel(int[] offsets, int[] targets, int target, Workspace other, DistanceVisitor visitor) {
+            int levelEnd = tail;
+            depth++;
+            while (head < levelEnd) {
+                int u = queue[head++];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (stamp[v] != epoch) {
+                        stamp[v] = epoch;
+                        pred[v] = u;
+                        if (visitor != null) {
+                            visitor.visit(v, depth);
+                        }
+                        if (v == target || (other != null && other.isVisited(v))) {
+                            return v;
+                        }
+                        queue[tail++] = v;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.structures.invertedIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido en los dos sentidos de una relación muchos a muchos entre elementos "izquierdos" (p. ej.
+ * usuarios) y "derechos" (p. ej. libros). Cada elemento recibe un id denso la primera vez que aparece, y cada
+ * uno guarda los ids del otro lado con los que está relacionado en una PostingList ordenada.
+ * Así "quién leyó este libro" o "qué libros tienen en común dos usuarios" se responden con las listas
+ * del propio elemento (o su intersección), sin recorrer los datos de todos los usuarios.
+ */
+public class InvertedIndex<L, R> {
+    private final Map<L, Integer> idsIzquierdos = new HashMap<>();
+    private final List<L> izquierdos = new ArrayList<>(); // id -> elemento (null si se eliminó)
+    private final List<PostingList> derechosDe = new ArrayList<>(); // id izquierdo -> ids derechos
+    private final Map<R, Integer> idsDerechos = new HashMap<>();
+    private final List<R> derechos = new ArrayList<>();
+    private final List<PostingList> izquierdosDe = new ArrayList<>(); // id derecho -> ids izquierdos
+
+    /**
+     * Registra la relación entre left y right.
+     * @return true si no existía.
+     */
+    public boolean add(L left, R right) {
+        if (left == null || right == null) {
+            return false;
+        }
+        int idLeft = idOrCreate(idsIzquierdos, izquierdos, derechosDe, left);
+        int idRight = idOrCreate(idsDerechos, derechos, izquierdosDe, right);
+        if (!derechosDe.get(idLeft).add(idRight)) {
+            return false;
+        }
+        izquierdosDe.get(idRight).add(idLeft);
+        return true;
+    }
+
+    /**
+     * Elimina el elemento izquierdo y todas sus relaciones, en O(relaciones suyas).
+     */
+    public void removeLeft(L left) {
+        int idLeft = leftId(left);
+        if (idLeft < 0) {
+            return;
+        }
+        PostingList relacionados = derechosDe.get(idLeft);
+        for (int i = 0; i < relacionados.size(); i++) {
+            izquierdosDe.get(relacionados.get(i)).remove(idLeft);
+        }
+        idsIzquierdos.remove(left);
+        izquierdos.set(idLeft, null);
+        derechosDe.set(idLeft, null); // El id no se reutiliza: leftId ya no lo devuelve
+    }
+
+    /**
+     * Elimina el elemento derecho y todas sus relaciones, en O(relaciones suyas).
+     */
+    public void removeRight(R right) {
+        int idRight = rightId(right);
+        if (idRight < 0) {
+            return;
+        }
+        PostingList relacionados = izquierdosDe.get(idRight);
+        for (int i = 0; i < relacionados.size(); i++) {
+            derechosDe.get(relacionados.get(i)).remove(idRight);
+        }
+        idsDerechos.remove(right);
+        derechos.set(idRight, null);
+        izquierdosDe.set(idRight, null);
+    }
+
+    /**
+     * Comprueba la relación en O(log n) con una búsqueda binaria en la lista del elemento izquierdo.
+     */
+    public boolean contains(L left, R right) {
+        int idLeft = leftId(left);
+        int idRight = rightId(right);
+        return idLeft >= 0 && idRight >= 0 && derechosDe.get(idLeft).contains(idRight);
+    }
+
+    /**
+     * @return el id denso del elemento izquierdo, o -1 si no está en el índice.
+     */
+    public int leftId(L left) {
+        Integer id = left == null ? null : idsIzquierdos.get(left);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return el id denso del elemento derecho, o -1 si no está en el índice.
+     */
+    public int rightId(R right) {
+        Integer id = right == null ? null : idsDerechos.get(right);
+        return id == null ? -1 : id;
+    }
+
+    public L left(int id) {
+        return izquierdos.get(id);
+    }
+
+    public R right(int id) {
+        return derechos.get(id);
+    }
+
+    /**
+     * @return los ids de los elementos derechos relacionados con left (vacía si no está en el índice).
+     *         Es la lista del propio índice: refleja los cambios posteriores.
+     */
+    public PostingList rightsOf(L left) {
+        int id = leftId(left);
+        return id < 0 ? PostingList.EMPTY : derechosDe.get(id);
+    }
+
+    /**
+     * @return los ids de los elementos izquierdos relacionados con right (vacía si no está en el índice).
+     */
+    public PostingList leftsOf(R right) {
+        int id = rightId(right);
+        return id < 0 ? PostingList.EMPTY : izquierdosDe.get(id);
+    }
+
+    /**
+     * Número de elementos derechos relacionados a la vez con a y con b (p. ej. libros leídos por los dos).
+     */
+    public int countCommonRights(L a, L b) {
+        return PostingList.intersectionSize(rightsOf(a), rightsOf(b));
+    }
+
+    private static <K> int idOrCreate(Map<K, Integer> ids, List<K> elementos, List<PostingList> listas, K elemento) {
+        Integer id = ids.get(elemento);
+        if (id == null) {
+            id = elementos.size();
+            ids.put(elemento, id);
+            elementos.add(elemento);
+            listas.add(new PostingList());
+        }
+        return id;
+    }
+}
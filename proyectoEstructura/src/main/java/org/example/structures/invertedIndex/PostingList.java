@@ -0,0 +1,101 @@
+package org.example.structures.invertedIndex;
+
+import java.util.Arrays;
+
+/**
+ * Lista de ids densos (int) ordenada de menor a mayor y sin repetidos, guardada en un int[] contiguo.
+ * Al estar ordenada, comprobar un id es una búsqueda binaria y la intersección de dos listas es una
+ * mezcla lineal. Solo el InvertedIndex que la contiene puede modificarla.
+ */
+public final class PostingList {
+    private static final int DEFAULT_CAPACITY = 4;
+    // Lista vacía que devuelve el índice para los elementos que no contiene; es compartida, así que no admite add
+    static final PostingList EMPTY = new PostingList(0);
+    private int[] ids;
+    private int size;
+
+    PostingList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    private PostingList(int capacity) {
+        this.ids = new int[capacity];
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index posición entre 0 y size() - 1.
+     * @return el id en esa posición (los ids están en orden creciente).
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice: " + index + ", Tamaño: " + size);
+        }
+        return ids[index];
+    }
+
+    /**
+     * Comprueba si el id está en la lista en O(log n).
+     */
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    // Inserta manteniendo el orden; casi siempre al final, porque los ids nuevos son los mayores
+    boolean add(int id) {
+        if (this == EMPTY) {
+            throw new UnsupportedOperationException("La lista vacía compartida no se puede modificar.");
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Número de ids comunes a las dos listas, con una mezcla lineal en O(a + b).
+     */
+    public static int intersectionSize(PostingList a, PostingList b) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.ids[i] < b.ids[j]) {
+                i++;
+            } else if (a.ids[i] > b.ids[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
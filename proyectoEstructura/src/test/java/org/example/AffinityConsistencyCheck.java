@@ -0,0 +1,151 @@
+package org.example;
+
+import org.example.model.Book;
+import org.example.model.Loan;
+import org.example.model.Rating;
+import org.example.model.User;
+import org.example.model.enums.TipoUsuario;
+import org.example.structures.graph.CsrGraph;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Comprobación de la red de afinidad: tras cada lote de préstamos y valoraciones (aplicado de forma incremental
+ * con flushAffinityUpdates) la red debe ser exactamente la unión de las afinidades por préstamos (haber leído
+ * un mismo libro) y por valoraciones (al menos 3 libros en común con puntuaciones que difieren como mucho en 1),
+ * calculadas aquí por fuerza bruta. De vez en cuando se purga un libro: sus valoraciones dejan de contar, pero
+ * quienes lo leyeron siguen siendo afines. Al final de cada ronda el recálculo completo debe dejar la misma red.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class AffinityConsistencyCheck {
+    private static final int RONDAS = 20;
+    private static final int LOTES_POR_RONDA = 15;
+    private static final int USUARIOS = 12;
+    private static final int LIBROS = 10;
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        PrintStream salida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // La biblioteca informa de cada afinidad por consola
+        try {
+            for (int ronda = 0; ronda < RONDAS; ronda++) {
+                checkRonda(random, ronda);
+            }
+        } finally {
+            System.setOut(salida);
+        }
+        System.out.println("Afinidades incrementales coherentes con el recálculo completo (semilla " + semilla + ").");
+    }
+
+    private static void checkRonda(Random random, int ronda) {
+        DigitalLibrary biblioteca = new DigitalLibrary();
+        for (int i = 0; i < USUARIOS; i++) {
+            biblioteca.registerUser(new User("p" + i, "Nombre", "Apellido", "u" + i + "@correo", "u" + i, "clave", TipoUsuario.LECTOR));
+        }
+        for (int b = 0; b < LIBROS; b++) {
+            biblioteca.addBook(new Book("K" + b, "Título " + b, "Autor", "Novela", 2000, USUARIOS));
+        }
+
+        for (int lote = 0; lote < LOTES_POR_RONDA; lote++) {
+            // Pocos préstamos por lote, para que las afinidades por préstamos no cubran todas las parejas
+            for (int k = random.nextInt(3); k > 0; k--) {
+                String username = "u" + random.nextInt(USUARIOS);
+                String bookId = "K" + random.nextInt(LIBROS);
+                biblioteca.requestLoan(username, bookId);
+                biblioteca.returnLoan(username, bookId);
+            }
+            // Valoraciones nuevas y cambios de puntuación, que crean y rompen afinidades
+            for (int k = random.nextInt(12); k > 0; k--) {
+                int i = random.nextInt(USUARIOS);
+                String bookId = "K" + random.nextInt(LIBROS);
+                biblioteca.valorarLibro("u" + i, bookId, 1 + random.nextInt(5), "");
+            }
+            if (random.nextInt(5) == 0) {
+                Book retirado = biblioteca.findBookById("K" + random.nextInt(LIBROS));
+                if (retirado != null) {
+                    retirado.setAvailable(false);
+                    check(biblioteca.purgeUnavailableBooks() == 1, "la purga debe eliminar el libro retirado");
+                    check(biblioteca.findBookById(retirado.getId()) == null, "el libro purgado no debe encontrarse por id");
+                }
+            }
+            biblioteca.flushAffinityUpdates();
+            check(aristas(biblioteca).equals(esperadas(biblioteca)),
+                    "la red incremental no coincide con la esperada (ronda " + ronda + ", lote " + lote + ")");
+        }
+
+        Set<String> incremental = aristas(biblioteca);
+        biblioteca.recalculateAffinitiesBasedOnRatings();
+        check(aristas(biblioteca).equals(incremental), "el recálculo completo no coincide con la red incremental (ronda " + ronda + ")");
+        biblioteca.recalculateAffinitiesBasedOnRatings(true);
+        check(aristas(biblioteca).equals(incremental), "el recálculo en paralelo no coincide con la red incremental (ronda " + ronda + ")");
+    }
+
+    private static Set<String> aristas(DigitalLibrary biblioteca) {
+        CsrGraph<User> red = biblioteca.getAffinitySnapshot();
+        Set<String> result = new HashSet<>();
+        for (int id = 0; id < red.size(); id++) {
+            for (int e = red.edgeStart(id); e < red.edgeEnd(id); e++) {
+                result.add(clave(red.vertex(id), red.vertex(red.target(e))));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> esperadas(DigitalLibrary biblioteca) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < USUARIOS; i++) {
+            User a = biblioteca.findUserByUsername("u" + i);
+            for (int j = i + 1; j < USUARIOS; j++) {
+                User b = biblioteca.findUserByUsername("u" + j);
+                if (compartenLectura(a, b) || similares(biblioteca, a, b) >= AffinityCalculator.MIN_LIBROS_COMUNES) {
+                    result.add(clave(a, b));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean compartenLectura(User a, User b) {
+        for (Loan prestamoA : a.getHistorialPrestamos()) {
+            for (Loan prestamoB : b.getHistorialPrestamos()) {
+                if (prestamoA.getLibro().getId().equals(prestamoB.getLibro().getId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int similares(DigitalLibrary biblioteca, User a, User b) {
+        int count = 0;
+        for (Rating ratingA : a.getLibrosValorados()) {
+            if (biblioteca.findBookById(ratingA.getLibro().getId()) == null) {
+                continue; // Libro purgado
+            }
+            for (Rating ratingB : b.getLibrosValorados()) {
+                if (ratingA.getLibro().getId().equals(ratingB.getLibro().getId())
+                        && Math.abs(ratingA.getPuntuacion() - ratingB.getPuntuacion()) <= AffinityCalculator.MAX_DIFERENCIA) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static String clave(User a, User b) {
+        String x = a.getUsername();
+        String y = b.getUsername();
+        return x.compareTo(y) < 0 ? x + "|" + y : y + "|" + x;
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import org.example.model.Book;
+import org.example.structures.doubleList.DoubleList;
+
+/**
+ * Comprobación de la búsqueda de libros por título: coincidencias exactas sin distinguir mayúsculas,
+ * varias ediciones del mismo título, libros no disponibles y títulos que no están en el catálogo
+ * (deben devolver null o una lista vacía, no lanzar excepciones).
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class BookSearchCheck {
+
+    public static void main(String[] args) {
+        DigitalLibrary biblioteca = new DigitalLibrary();
+        biblioteca.addBook(new Book("B2", "Dune", "Herbert", "Ciencia Ficción", 1965, 2));
+        biblioteca.addBook(new Book("B1", "Dune", "Herbert", "Ciencia Ficción", 1965, 1));
+        biblioteca.addBook(new Book("B3", "Dune Mesías", "Herbert", "Ciencia Ficción", 1969, 1));
+        biblioteca.addBook(new Book("B4", "Emma", "Austen", "Novela", 1815, 1));
+        Book retirado = new Book("B5", "Fahrenheit 451", "Bradbury", "Ciencia Ficción", 1953, 1);
+        biblioteca.addBook(retirado);
+        retirado.setAvailable(false);
+
+        check(biblioteca.findBookByTitle("Inexistente") == null, "un título que no existe debe devolver null");
+        check(biblioteca.findBookByTitle("Dun") == null, "un prefijo no es una coincidencia exacta");
+        check(biblioteca.findBookByTitle("Zzz") == null, "un título posterior a todo el catálogo debe devolver null");
+        check(biblioteca.findBookByTitle(null) == null, "un título null debe devolver null");
+        check(biblioteca.findBooksByTitle("Inexistente").isEmpty(), "la lista de ediciones de un título que no existe debe estar vacía");
+
+        Book dune = biblioteca.findBookByTitle("dUNE");
+        check(dune != null && dune.getId().equals("B1"), "debe devolver la edición de menor id sin distinguir mayúsculas");
+        DoubleList<Book> ediciones = biblioteca.findBooksByTitle("Dune");
+        check(ediciones.size() == 2 && ediciones.get(0).getId().equals("B1") && ediciones.get(1).getId().equals("B2"),
+                "debe devolver las dos ediciones ordenadas por id, sin 'Dune Mesías'");
+
+        check(biblioteca.findBookByTitle("Fahrenheit 451") == null, "un libro no disponible no debe encontrarse");
+        check(biblioteca.findBooksByTitlePrefix("Dune").size() == 3, "la búsqueda por prefijo debe encontrar las tres ediciones");
+        check(biblioteca.findBooksByTitlePrefix("Inex").isEmpty(), "la búsqueda por prefijo de un título que no existe debe estar vacía");
+
+        System.out.println("Búsqueda de libros por título correcta.");
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example;
+
+import org.example.model.Book;
+import org.example.model.User;
+import org.example.model.enums.TipoUsuario;
+
+/**
+ * Comprobación de los rankings con un N muy grande (los diálogos de estadísticas aceptan cualquier N
+ * positivo): deben devolver todos los candidatos sin reservar memoria para N elementos.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class RankingLimitsCheck {
+
+    public static void main(String[] args) {
+        DigitalLibrary biblioteca = new DigitalLibrary();
+        for (int i = 0; i < 30; i++) {
+            biblioteca.addBook(new Book("B" + i, "Título " + i, "Autor", "Novela", 2000, 1));
+        }
+        for (int i = 0; i < 10; i++) {
+            biblioteca.registerUser(new User("" + i, "Nombre", "Apellido", "u" + i + "@correo", "u" + i, "clave", TipoUsuario.LECTOR));
+        }
+
+        for (int n : new int[]{Integer.MAX_VALUE, 1_000_000_000}) {
+            check(biblioteca.getMostRatedBooks(n).size() == 30, "getMostRatedBooks(" + n + ") debe devolver los 30 libros");
+            check(biblioteca.getUsersWithMostConnections(n).size() == 10, "getUsersWithMostConnections(" + n + ") debe devolver los 10 usuarios");
+            check(biblioteca.getFriendSuggestionsByNetwork("u0", n).isEmpty(), "sin conexiones no hay sugerencias por red");
+            check(biblioteca.getFriendSuggestionsByBookCategory("u0", n).isEmpty(), "sin valoraciones no hay sugerencias por categoría");
+        }
+        check(biblioteca.getMostRatedBooks(0).isEmpty() && biblioteca.getMostRatedBooks(-5).isEmpty(), "N <= 0 debe devolver una lista vacía");
+        check(biblioteca.getMostRatedBooks(3).size() == 3, "getMostRatedBooks(3) debe devolver 3 libros");
+
+        System.out.println("Rankings con N grande correctos.");
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
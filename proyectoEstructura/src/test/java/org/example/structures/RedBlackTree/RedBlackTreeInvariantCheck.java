@@ -0,0 +1,122 @@
+package org.example.structures.RedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comprobación aleatoria del árbol rojo-negro: aplica inserciones, eliminaciones y removeIf al azar
+ * (con valores repetidos) y después de cada operación verifica las invariantes del árbol (ver checkInvariants)
+ * y compara el contenido con una lista ordenada de referencia. Al final de cada ronda hace lo mismo
+ * con el árbol que construye buildFromSorted.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class RedBlackTreeInvariantCheck {
+    private static final int RONDAS = 200;
+    private static final int OPERACIONES_POR_RONDA = 500;
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            RedBlackTree<Integer> tree = new RedBlackTree<>();
+            List<Integer> referencia = new ArrayList<>();
+            int rango = 1 + random.nextInt(200); // Rangos pequeños provocan muchos valores repetidos
+            for (int op = 0; op < OPERACIONES_POR_RONDA; op++) {
+                int valor = random.nextInt(rango);
+                int tipo = random.nextInt(10);
+                if (tipo < 6) {
+                    tree.insert(valor);
+                    referencia.add(valor);
+                } else if (tipo < 9) {
+                    if (tree.delete(valor) != referencia.remove((Integer) valor)) {
+                        throw new IllegalStateException("delete(" + valor + ") no coincide con la referencia");
+                    }
+                } else {
+                    int divisor = 2 + random.nextInt(5);
+                    int eliminados = tree.removeIf(x -> x % divisor == 0).size();
+                    int esperados = referencia.size();
+                    referencia.removeIf(x -> x % divisor == 0);
+                    if (eliminados != esperados - referencia.size()) {
+                        throw new IllegalStateException("removeIf eliminó " + eliminados + " elementos");
+                    }
+                }
+                checkInvariants(tree);
+                compare(tree, referencia, semilla, ronda, op);
+            }
+            // El árbol construido en bloque a partir de los mismos elementos también debe cumplirlas
+            Collections.sort(referencia);
+            RedBlackTree<Integer> construido = RedBlackTree.buildFromSorted(referencia);
+            checkInvariants(construido);
+            compare(construido, referencia, semilla, ronda, OPERACIONES_POR_RONDA);
+        }
+        System.out.println("Invariantes del árbol rojo-negro correctas (semilla " + semilla + ").");
+    }
+
+    /**
+     * Comprueba las propiedades del árbol en O(n): la raíz es negra, ningún nodo rojo tiene un hijo rojo,
+     * todas las ramas tienen la misma altura negra, los enlaces al padre son coherentes, el tamaño de cada
+     * subárbol es correcto y el recorrido in-order está ordenado.
+     * @throws IllegalStateException con la primera propiedad que no se cumple.
+     */
+    static <T extends Comparable<T>> void checkInvariants(RedBlackTree<T> tree) {
+        RedBlackNode<T> nil = tree.nilNode();
+        RedBlackNode<T> root = tree.rootNode();
+        if (nil.color != Color.BLACK || nil.size != 0) {
+            throw new IllegalStateException("El sentinela debe ser negro y de tamaño 0");
+        }
+        if (root == nil) {
+            return;
+        }
+        if (root.color != Color.BLACK || root.parent != null) {
+            throw new IllegalStateException("La raíz debe ser negra y no tener padre");
+        }
+        @SuppressWarnings("unchecked")
+        Comparator<? super T> orden = tree.comparator() != null ? tree.comparator() : (Comparator<? super T>) Comparator.naturalOrder();
+        List<T> inOrder = new ArrayList<>();
+        checkSubtree(root, nil, inOrder);
+        for (int i = 1; i < inOrder.size(); i++) {
+            if (orden.compare(inOrder.get(i - 1), inOrder.get(i)) > 0) {
+                throw new IllegalStateException("Recorrido in-order desordenado en " + inOrder.get(i));
+            }
+        }
+    }
+
+    // Devuelve la altura negra del subárbol y añade sus elementos en orden a inOrder
+    private static <T extends Comparable<T>> int checkSubtree(RedBlackNode<T> node, RedBlackNode<T> nil, List<T> inOrder) {
+        if (node == nil) {
+            return 1;
+        }
+        if ((node.left != nil && node.left.parent != node) || (node.right != nil && node.right.parent != node)) {
+            throw new IllegalStateException("Enlace al padre incorrecto bajo " + node.data);
+        }
+        if (node.color == Color.RED && (node.left.color == Color.RED || node.right.color == Color.RED)) {
+            throw new IllegalStateException("Nodo rojo con un hijo rojo: " + node.data);
+        }
+        if (node.size != node.left.size + node.right.size + 1) {
+            throw new IllegalStateException("Tamaño de subárbol incorrecto en " + node.data);
+        }
+        int izquierda = checkSubtree(node.left, nil, inOrder);
+        inOrder.add(node.data);
+        int derecha = checkSubtree(node.right, nil, inOrder);
+        if (izquierda != derecha) {
+            throw new IllegalStateException("Altura negra distinta bajo " + node.data);
+        }
+        return izquierda + (node.color == Color.BLACK ? 1 : 0);
+    }
+
+    private static void compare(RedBlackTree<Integer> tree, List<Integer> referencia, long semilla, int ronda, int op) {
+        List<Integer> ordenada = new ArrayList<>(referencia);
+        Collections.sort(ordenada);
+        List<Integer> contenido = new ArrayList<>();
+        for (Integer valor : tree) {
+            contenido.add(valor);
+        }
+        if (tree.size() != ordenada.size() || !contenido.equals(ordenada)) {
+            throw new IllegalStateException("Contenido distinto de la referencia (semilla " + semilla
+                    + ", ronda " + ronda + ", operación " + op + ")");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.structures.RedBlackTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comprobación aleatoria de las consultas ordenadas del árbol rojo-negro (floor, ceiling, subRange,
+ * headRange, tailRange y prefixScan) contra una lista ordenada de referencia, con valores repetidos.
+ * También comprueba que los rangos son vistas: reflejan los cambios hechos antes de pedir el iterador
+ * y fallan si el árbol cambia durante el recorrido.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class RedBlackTreeRangeCheck {
+    private static final int RONDAS = 200;
+    private static final int CONSULTAS_POR_RONDA = 200;
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            RedBlackTree<Integer> tree = new RedBlackTree<>();
+            List<Integer> referencia = new ArrayList<>();
+            int rango = 1 + random.nextInt(1000);
+            for (int i = random.nextInt(400); i > 0; i--) {
+                int valor = random.nextInt(rango);
+                tree.insert(valor);
+                referencia.add(valor);
+            }
+            Collections.sort(referencia);
+
+            for (int q = 0; q < CONSULTAS_POR_RONDA; q++) {
+                int from = random.nextInt(rango + 20) - 10;
+                int to = from + random.nextInt(rango / 4 + 2);
+
+                Integer floor = null;
+                Integer ceiling = null;
+                List<Integer> sub = new ArrayList<>();
+                List<Integer> head = new ArrayList<>();
+                List<Integer> tail = new ArrayList<>();
+                List<Integer> prefijo = new ArrayList<>();
+                for (int valor : referencia) {
+                    if (valor <= from) floor = valor;
+                    if (valor >= from && ceiling == null) ceiling = valor;
+                    if (valor >= from && valor < to) sub.add(valor);
+                    if (valor < to) head.add(valor);
+                    if (valor >= from) tail.add(valor);
+                    if (valor >= from && valor / 10 == from / 10) prefijo.add(valor);
+                }
+
+                check(equalsNullable(tree.floor(from), floor), "floor(" + from + ")");
+                check(equalsNullable(tree.ceiling(from), ceiling), "ceiling(" + from + ")");
+                check(toList(tree.subRange(from, to)).equals(sub), "subRange(" + from + ", " + to + ")");
+                check(toList(tree.headRange(to)).equals(head), "headRange(" + to + ")");
+                check(toList(tree.tailRange(from)).equals(tail), "tailRange(" + from + ")");
+                final int decena = from / 10;
+                check(toList(tree.prefixScan(from, valor -> valor / 10 == decena)).equals(prefijo), "prefixScan(" + from + ")");
+            }
+        }
+
+        check(toList(new RedBlackTree<Integer>().subRange(0, 10)).isEmpty(), "rango de un árbol vacío");
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        check(toList(tree.tailRange(null)).isEmpty() && toList(tree.subRange(null, 5)).isEmpty()
+                && toList(tree.headRange(null)).isEmpty(), "límites null deben dar rangos vacíos");
+
+        // La vista se evalúa al pedir el iterador, no al crearla
+        Iterable<Integer> vista = tree.subRange(10, 20);
+        for (int i = 0; i < 30; i++) {
+            tree.insert(i);
+        }
+        check(toList(vista).size() == 10, "la vista debe reflejar los elementos insertados después de crearla");
+
+        Iterator<Integer> iterador = tree.tailRange(5).iterator();
+        iterador.next();
+        tree.insert(100);
+        boolean fallo = false;
+        try {
+            iterador.next();
+        } catch (ConcurrentModificationException e) {
+            fallo = true;
+        }
+        check(fallo, "modificar el árbol durante el recorrido de un rango debe fallar");
+
+        System.out.println("Consultas por rango del árbol rojo-negro correctas (semilla " + semilla + ").");
+    }
+
+    private static List<Integer> toList(Iterable<Integer> valores) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer valor : valores) {
+            result.add(valor);
+        }
+        return result;
+    }
+
+    private static boolean equalsNullable(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
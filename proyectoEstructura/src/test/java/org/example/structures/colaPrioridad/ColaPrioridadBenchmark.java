@@ -0,0 +1,146 @@
+package org.example.structures.colaPrioridad;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Medición de las variantes de la cola de prioridad con una carga parecida a la lista de espera:
+ * solicitudes ordenadas por instante, comparando el heap binario actual, el 4-ario y la cola con
+ * la prioridad en un long[] (binaria y 4-aria).
+ * <p>
+ * Cada ronda mide dos cargas sobre los mismos datos: llenar la cola con n solicitudes y vaciarla,
+ * y, con una cola ya llena de n elementos, sacar uno y meter otro n veces (modelo "hold"); en esta
+ * segunda carga solo se cronometra el bucle, no la construcción de la cola.
+ * Se hacen rondas de calentamiento para que el JIT compile antes de medir y se informa la mediana.
+ * No hay JMH en el proyecto, así que es un main: java ColaPrioridadBenchmark [n] [rondas] [semilla].
+ */
+public class ColaPrioridadBenchmark {
+
+    private static final int CALENTAMIENTO = 5;
+    private static long control; // Se imprime al final para que el JIT no pueda descartar el trabajo medido
+
+    // Misma comparación que LoanRequest: por el LocalDateTime de la solicitud
+    static final class Solicitud implements Comparable<Solicitud> {
+        final LocalDateTime instante;
+
+        Solicitud(LocalDateTime instante) {
+            this.instante = instante;
+        }
+
+        long epochMillis() {
+            return instante.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+
+        @Override
+        public int compareTo(Solicitud otra) {
+            return instante.compareTo(otra.instante);
+        }
+    }
+
+    private interface Variante {
+        void llenarYVaciar(Solicitud[] datos);
+
+        // Devuelve los nanosegundos del bucle de sacar/meter
+        long hold(Solicitud[] datos, Solicitud[] entrantes);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long semilla = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        Random random = new Random(semilla);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Solicitud[] datos = new Solicitud[n];
+        Solicitud[] entrantes = new Solicitud[n];
+        for (int i = 0; i < n; i++) {
+            datos[i] = new Solicitud(base.plusNanos(random.nextInt(30 * 24 * 3600) * 1_000_000_000L + random.nextInt(1000) * 1_000_000L));
+            entrantes[i] = new Solicitud(base.plusDays(30).plusSeconds(random.nextInt(30 * 24 * 3600)));
+        }
+
+        String[] nombres = {"binario (actual)", "4-ario", "long[] binario", "long[] 4-ario"};
+        Variante[] variantes = {objetos(2), objetos(4), primitivos(2), primitivos(4)};
+
+        System.out.println("n = " + n + ", rondas = " + rondas + " (+" + CALENTAMIENTO + " de calentamiento)");
+        System.out.printf("%-18s %16s %16s%n", "variante", "llenar+vaciar ms", "hold ms");
+        for (int v = 0; v < variantes.length; v++) {
+            long[] llenado = new long[rondas];
+            long[] hold = new long[rondas];
+            for (int r = -CALENTAMIENTO; r < rondas; r++) {
+                long inicio = System.nanoTime();
+                variantes[v].llenarYVaciar(datos);
+                long tiempoLlenado = System.nanoTime() - inicio;
+                long tiempoHold = variantes[v].hold(datos, entrantes);
+                if (r >= 0) {
+                    llenado[r] = tiempoLlenado;
+                    hold[r] = tiempoHold;
+                }
+            }
+            System.out.printf("%-18s %16.2f %16.2f%n", nombres[v], mediana(llenado) / 1e6, mediana(hold) / 1e6);
+        }
+        System.out.println("control " + control);
+    }
+
+    private static Variante objetos(int aridad) {
+        return new Variante() {
+            @Override
+            public void llenarYVaciar(Solicitud[] datos) {
+                ColaPrioridad<Solicitud> cola = new ColaPrioridad<>(aridad);
+                for (Solicitud solicitud : datos) {
+                    cola.add(solicitud);
+                }
+                while (!cola.isEmpty()) {
+                    control += cola.poll().instante.getNano();
+                }
+            }
+
+            @Override
+            public long hold(Solicitud[] datos, Solicitud[] entrantes) {
+                ColaPrioridad<Solicitud> cola = new ColaPrioridad<>(Arrays.asList(datos), aridad);
+                long inicio = System.nanoTime();
+                for (Solicitud entrante : entrantes) {
+                    control += cola.poll().instante.getNano();
+                    cola.add(entrante);
+                }
+                return System.nanoTime() - inicio;
+            }
+        };
+    }
+
+    private static Variante primitivos(int aridad) {
+        return new Variante() {
+            @Override
+            public void llenarYVaciar(Solicitud[] datos) {
+                ColaPrioridadLong<Solicitud> cola = new ColaPrioridadLong<>(aridad);
+                for (Solicitud solicitud : datos) {
+                    cola.add(solicitud.epochMillis(), solicitud);
+                }
+                while (!cola.isEmpty()) {
+                    control += cola.poll().instante.getNano();
+                }
+            }
+
+            @Override
+            public long hold(Solicitud[] datos, Solicitud[] entrantes) {
+                ColaPrioridadLong<Solicitud> cola = new ColaPrioridadLong<>(aridad);
+                for (Solicitud solicitud : datos) {
+                    cola.add(solicitud.epochMillis(), solicitud);
+                }
+                long inicio = System.nanoTime();
+                for (Solicitud entrante : entrantes) {
+                    control += cola.poll().instante.getNano();
+                    cola.add(entrante.epochMillis(), entrante);
+                }
+                return System.nanoTime() - inicio;
+            }
+        };
+    }
+
+    private static long mediana(long[] tiempos) {
+        long[] copia = tiempos.clone();
+        Arrays.sort(copia);
+        return copia[copia.length / 2];
+    }
+}
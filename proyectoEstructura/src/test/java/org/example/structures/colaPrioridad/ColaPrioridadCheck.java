@@ -0,0 +1,82 @@
+package org.example.structures.colaPrioridad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comprobación aleatoria de ColaPrioridad (con aridad 2, 3 y 4, por add y por el constructor de Floyd)
+ * y de ColaPrioridadLong contra una lista ordenada: operaciones mezcladas de add y poll, y al final
+ * se vacía la cola comprobando que sale en orden.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class ColaPrioridadCheck {
+    private static final int RONDAS = 500;
+    private static final int[] ARIDADES = {2, 3, 4};
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            int aridad = ARIDADES[ronda % ARIDADES.length];
+            int rango = 1 + random.nextInt(ronda % 2 == 0 ? 20 : 100_000); // Rondas con muchos empates
+            List<Integer> iniciales = new ArrayList<>();
+            for (int i = random.nextInt(300); i > 0; i--) {
+                iniciales.add(random.nextInt(rango));
+            }
+
+            ColaPrioridad<Integer> cola = ronda % 4 < 2 ? new ColaPrioridad<>(iniciales, aridad) : new ColaPrioridad<>(aridad);
+            ColaPrioridadLong<Integer> colaLong = new ColaPrioridadLong<>(aridad);
+            if (ronda % 4 >= 2) {
+                for (Integer valor : iniciales) {
+                    cola.add(valor);
+                }
+            }
+            for (Integer valor : iniciales) {
+                colaLong.add(valor, valor);
+            }
+            List<Integer> referencia = new ArrayList<>(iniciales);
+            Collections.sort(referencia);
+
+            for (int op = random.nextInt(400); op > 0; op--) {
+                if (referencia.isEmpty() || random.nextInt(3) > 0) {
+                    int valor = random.nextInt(rango);
+                    cola.add(valor);
+                    colaLong.add(valor, valor);
+                    int pos = Collections.binarySearch(referencia, valor);
+                    referencia.add(pos >= 0 ? pos : -pos - 1, valor);
+                } else {
+                    int esperado = referencia.remove(0);
+                    check(cola.peek() == esperado, "peek distinto de la referencia (aridad " + aridad + ")");
+                    check(colaLong.peekPrioridad() == esperado, "peekPrioridad distinto de la referencia (aridad " + aridad + ")");
+                    check(cola.poll() == esperado, "poll distinto de la referencia (aridad " + aridad + ")");
+                    check(colaLong.poll() == esperado, "poll de ColaPrioridadLong distinto de la referencia (aridad " + aridad + ")");
+                }
+                check(cola.size() == referencia.size() && colaLong.size() == referencia.size(), "tamaño incorrecto");
+            }
+
+            for (int esperado : referencia) {
+                check(cola.poll() == esperado, "la cola no se vacía en orden (aridad " + aridad + ")");
+                check(colaLong.poll() == esperado, "ColaPrioridadLong no se vacía en orden (aridad " + aridad + ")");
+            }
+            check(cola.isEmpty() && colaLong.isEmpty(), "la cola debería quedar vacía");
+        }
+
+        boolean rechazada = false;
+        try {
+            new ColaPrioridad<Integer>(1);
+        } catch (IllegalArgumentException e) {
+            rechazada = true;
+        }
+        check(rechazada, "una aridad menor que 2 debe lanzar IllegalArgumentException");
+
+        System.out.println("Colas de prioridad correctas (semilla " + semilla + ").");
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
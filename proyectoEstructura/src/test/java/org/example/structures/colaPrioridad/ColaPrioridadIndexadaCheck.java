@@ -0,0 +1,117 @@
+package org.example.structures.colaPrioridad;
+
+import org.example.structures.doubleList.DoubleList;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Comprobación aleatoria de ColaPrioridadIndexada contra una lista de referencia: operaciones mezcladas de add,
+ * poll, remove(handle) (también con Handles que ya salieron de la cola), drainTo y clear, verificando después
+ * de cada una peek, size, contains de todos los Handles y que handles() devuelve exactamente los vivos.
+ * Los elementos son distintos entre sí (la prioridad va en las cifras altas), para saber qué Handle sale en cada poll.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class ColaPrioridadIndexadaCheck {
+    private static final int RONDAS = 300;
+    private static final int OPERACIONES_POR_RONDA = 400;
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            ColaPrioridadIndexada<Integer> cola = new ColaPrioridadIndexada<>();
+            List<ColaPrioridadIndexada.Handle<Integer>> vivos = new ArrayList<>();
+            List<ColaPrioridadIndexada.Handle<Integer>> muertos = new ArrayList<>();
+            int rango = 1 + random.nextInt(ronda % 2 == 0 ? 10 : 10_000); // Rondas con muchas prioridades iguales
+            int contador = 0;
+            for (int op = 0; op < OPERACIONES_POR_RONDA; op++) {
+                int tipo = random.nextInt(20);
+                if (vivos.isEmpty() || tipo < 9) {
+                    int elemento = random.nextInt(rango) * 100_000 + contador++;
+                    ColaPrioridadIndexada.Handle<Integer> handle = cola.add(elemento);
+                    check(handle.getElemento() == elemento, "el Handle debe devolver su elemento");
+                    vivos.add(handle);
+                } else if (tipo < 13) {
+                    ColaPrioridadIndexada.Handle<Integer> minimo = minimo(vivos);
+                    check(cola.poll() == (int) minimo.getElemento(), "poll distinto del mínimo de la referencia");
+                    vivos.remove(minimo);
+                    muertos.add(minimo);
+                } else if (tipo < 17) {
+                    ColaPrioridadIndexada.Handle<Integer> handle = vivos.remove(random.nextInt(vivos.size()));
+                    check(cola.remove(handle), "remove de un Handle vivo debe devolver true");
+                    muertos.add(handle);
+                } else if (tipo < 18) {
+                    if (!muertos.isEmpty()) {
+                        check(!cola.remove(muertos.get(random.nextInt(muertos.size()))), "remove de un Handle muerto debe devolver false");
+                    }
+                } else if (tipo < 19) {
+                    int max = random.nextInt(5);
+                    List<Integer> extraidos = new ArrayList<>();
+                    int esperados = Math.min(max, vivos.size());
+                    check(cola.drainTo(extraidos, max) == esperados && extraidos.size() == esperados, "drainTo extrajo un número incorrecto");
+                    for (Integer extraido : extraidos) {
+                        ColaPrioridadIndexada.Handle<Integer> minimo = minimo(vivos);
+                        check(extraido.equals(minimo.getElemento()), "drainTo no extrae en orden de prioridad");
+                        vivos.remove(minimo);
+                        muertos.add(minimo);
+                    }
+                } else if (random.nextInt(10) == 0) {
+                    cola.clear();
+                    muertos.addAll(vivos);
+                    vivos.clear();
+                }
+                compare(cola, vivos, muertos);
+            }
+        }
+
+        boolean rechazado = false;
+        try {
+            new ColaPrioridadIndexada<Integer>().add(null);
+        } catch (NullPointerException e) {
+            rechazado = true;
+        }
+        check(rechazado, "add(null) debe lanzar NullPointerException");
+
+        System.out.println("Cola de prioridad indexada correcta (semilla " + semilla + ").");
+    }
+
+    private static ColaPrioridadIndexada.Handle<Integer> minimo(List<ColaPrioridadIndexada.Handle<Integer>> vivos) {
+        ColaPrioridadIndexada.Handle<Integer> minimo = vivos.get(0);
+        for (ColaPrioridadIndexada.Handle<Integer> handle : vivos) {
+            if (handle.getElemento() < minimo.getElemento()) {
+                minimo = handle;
+            }
+        }
+        return minimo;
+    }
+
+    private static void compare(ColaPrioridadIndexada<Integer> cola, List<ColaPrioridadIndexada.Handle<Integer>> vivos,
+                                List<ColaPrioridadIndexada.Handle<Integer>> muertos) {
+        check(cola.size() == vivos.size() && cola.isEmpty() == vivos.isEmpty(), "tamaño distinto de la referencia");
+        if (!vivos.isEmpty()) {
+            check(cola.peek().equals(minimo(vivos).getElemento()), "peek distinto del mínimo de la referencia");
+        }
+        for (ColaPrioridadIndexada.Handle<Integer> handle : vivos) {
+            check(cola.contains(handle), "contains de un Handle vivo debe devolver true");
+        }
+        for (ColaPrioridadIndexada.Handle<Integer> handle : muertos) {
+            check(!cola.contains(handle), "contains de un Handle muerto debe devolver false");
+        }
+        DoubleList<ColaPrioridadIndexada.Handle<Integer>> handles = cola.handles();
+        Set<ColaPrioridadIndexada.Handle<Integer>> vistos = new HashSet<>();
+        for (ColaPrioridadIndexada.Handle<Integer> handle : handles) {
+            check(vistos.add(handle), "handles() repite un Handle");
+        }
+        check(vistos.equals(new HashSet<>(vivos)), "handles() no devuelve exactamente los Handles vivos");
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.structures.colaPrioridad;
+
+import org.example.structures.doubleList.DoubleList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comprobación aleatoria de TopK contra la referencia "ordenar la lista completa de forma estable y quedarse
+ * con los k primeros", con muchos empates (para verificar la estabilidad), k = 0 y k mayor que la entrada.
+ * También comprueba que un k enorme no reserva memoria por adelantado.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class TopKCheck {
+    private static final int RONDAS = 2000;
+
+    // Elemento con un valor por el que se ordena y un id que distingue los empates
+    private static final class Item {
+        final int valor;
+        final int id;
+
+        Item(int valor, int id) {
+            this.valor = valor;
+            this.id = id;
+        }
+    }
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        Comparator<Item> orden = Comparator.comparingInt((Item item) -> item.valor).reversed();
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            int n = random.nextInt(200);
+            int k = random.nextInt(n + 20);
+            int rango = 1 + random.nextInt(30);
+            List<Item> entrada = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                entrada.add(new Item(random.nextInt(rango), i));
+            }
+
+            TopK<Item> topK = new TopK<>(k, orden);
+            for (Item item : entrada) {
+                topK.offer(item);
+            }
+            List<Item> esperado = new ArrayList<>(entrada);
+            esperado.sort(orden); // List.sort es estable
+            esperado = esperado.subList(0, Math.min(k, n));
+
+            check(topK.size() == esperado.size(), "tamaño incorrecto (semilla " + semilla + ", ronda " + ronda + ")");
+            DoubleList<Item> obtenido = topK.drainOrdered();
+            check(obtenido.size() == esperado.size() && topK.isEmpty(), "drainOrdered debe vaciar la selección");
+            int i = 0;
+            for (Item item : obtenido) {
+                check(item == esperado.get(i), "elemento " + i + " distinto (semilla " + semilla + ", ronda " + ronda + ")");
+                i++;
+            }
+        }
+
+        // Un k enorme solo ocupa lo que se ofrece
+        TopK<Integer> enorme = new TopK<>(Integer.MAX_VALUE, Comparator.<Integer>naturalOrder());
+        for (int i = 0; i < 100; i++) {
+            enorme.offer(100 - i);
+        }
+        DoubleList<Integer> menores = enorme.drainOrdered();
+        check(menores.size() == 100 && menores.get(0) == 1 && menores.get(99) == 100, "k enorme: selección incorrecta");
+
+        try {
+            new TopK<Integer>(-1, Comparator.<Integer>naturalOrder());
+            throw new IllegalStateException("k negativo debe rechazarse");
+        } catch (IllegalArgumentException esperado) {
+            // Correcto
+        }
+        System.out.println("TopK correcto (semilla " + semilla + ").");
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
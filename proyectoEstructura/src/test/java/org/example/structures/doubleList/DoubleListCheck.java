@@ -0,0 +1,148 @@
+package org.example.structures.doubleList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Comprobación aleatoria de DoubleList y ArrayDoubleList contra un ArrayList: operaciones mezcladas en ambos
+ * extremos, por índice y por valor, verificando después de cada una el acceso por índice (que en DoubleList
+ * pasa por el cursor). Después varios hilos leen a la vez con get(i) una DoubleList que nadie modifica:
+ * cada lectura debe devolver el elemento de su posición.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class DoubleListCheck {
+    private static final int RONDAS = 200;
+    private static final int OPERACIONES_POR_RONDA = 300;
+    private static final int HILOS_LECTORES = 8;
+    private static final int LECTURAS_POR_HILO = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            DoubleList<Integer> lista = new DoubleList<>();
+            ArrayDoubleList<Integer> arreglo = new ArrayDoubleList<>(ronda % 3); // Capacidades pequeñas fuerzan el crecimiento
+            List<Integer> referencia = new ArrayList<>();
+            for (int op = 0; op < OPERACIONES_POR_RONDA; op++) {
+                int valor = random.nextInt(50);
+                int tamano = referencia.size();
+                switch (random.nextInt(8)) {
+                    case 0:
+                        lista.addFirst(valor);
+                        arreglo.addFirst(valor);
+                        referencia.add(0, valor);
+                        break;
+                    case 1:
+                        lista.addLast(valor);
+                        arreglo.addLast(valor);
+                        referencia.add(valor);
+                        break;
+                    case 2: {
+                        int index = random.nextInt(tamano + 1);
+                        lista.add(valor, index);
+                        arreglo.add(valor, index);
+                        referencia.add(index, valor);
+                        break;
+                    }
+                    case 3:
+                        if (tamano > 0) {
+                            int index = random.nextInt(tamano);
+                            Integer esperado = referencia.remove(index);
+                            check(esperado.equals(lista.removeAtIndex(index)), "removeAtIndex de DoubleList");
+                            check(esperado.equals(arreglo.removeAtIndex(index)), "removeAtIndex de ArrayDoubleList");
+                        }
+                        break;
+                    case 4:
+                        if (tamano > 0) {
+                            int index = random.nextInt(tamano);
+                            Integer esperado = referencia.set(index, valor);
+                            check(esperado.equals(lista.set(index, valor)), "set de DoubleList");
+                            check(esperado.equals(arreglo.set(index, valor)), "set de ArrayDoubleList");
+                        }
+                        break;
+                    case 5: {
+                        boolean esperado = referencia.remove((Integer) valor);
+                        check(lista.remove(valor) == esperado, "remove(valor) de DoubleList");
+                        check(arreglo.remove(valor) == esperado, "remove(valor) de ArrayDoubleList");
+                        break;
+                    }
+                    case 6:
+                        if (tamano > 0) {
+                            boolean primero = random.nextBoolean();
+                            Integer esperado = primero ? referencia.remove(0) : referencia.remove(tamano - 1);
+                            check(esperado.equals(primero ? lista.removeFirst() : lista.removeLast()), "removeFirst/Last de DoubleList");
+                            check(esperado.equals(primero ? arreglo.removeFirst() : arreglo.removeLast()), "removeFirst/Last de ArrayDoubleList");
+                        }
+                        break;
+                    default:
+                        // Acceso por índice al azar, para dejar el cursor en cualquier posición
+                        if (tamano > 0) {
+                            int index = random.nextInt(tamano);
+                            check(referencia.get(index).equals(lista.get(index)), "get de DoubleList");
+                        }
+                        break;
+                }
+                compare(lista, arreglo, referencia);
+            }
+            check(arreglo.toDoubleList().size() == referencia.size(), "toDoubleList debe copiar todos los elementos");
+        }
+
+        checkLectoresConcurrentes(random);
+        System.out.println("DoubleList y ArrayDoubleList correctas (semilla " + semilla + ").");
+    }
+
+    private static void compare(DoubleList<Integer> lista, ArrayDoubleList<Integer> arreglo, List<Integer> referencia) {
+        check(lista.size() == referencia.size() && arreglo.size() == referencia.size(), "tamaño distinto de la referencia");
+        for (int i = 0; i < referencia.size(); i++) {
+            check(referencia.get(i).equals(lista.get(i)), "DoubleList.get(" + i + ") distinto de la referencia");
+            check(referencia.get(i).equals(arreglo.get(i)), "ArrayDoubleList.get(" + i + ") distinto de la referencia");
+        }
+        int i = 0;
+        for (Integer valor : arreglo) {
+            check(referencia.get(i++).equals(valor), "el iterador de ArrayDoubleList no sigue el orden");
+        }
+        if (!referencia.isEmpty()) {
+            check(referencia.get(0).equals(lista.peekFirst()) && referencia.get(0).equals(arreglo.peekFirst()), "peekFirst");
+            check(referencia.get(referencia.size() - 1).equals(lista.peekLast()) && referencia.get(referencia.size() - 1).equals(arreglo.peekLast()), "peekLast");
+        }
+    }
+
+    // Cada elemento es su propia posición, así que cualquier lectura con el cursor de otro hilo mal emparejado se detecta
+    private static void checkLectoresConcurrentes(Random random) throws InterruptedException {
+        int n = 10_000;
+        DoubleList<Integer> lista = new DoubleList<>();
+        for (int i = 0; i < n; i++) {
+            lista.addLast(i);
+        }
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread[] hilos = new Thread[HILOS_LECTORES];
+        for (int h = 0; h < hilos.length; h++) {
+            long semillaHilo = random.nextLong();
+            hilos[h] = new Thread(() -> {
+                Random aleatorio = new Random(semillaHilo);
+                int index = aleatorio.nextInt(n);
+                for (int k = 0; k < LECTURAS_POR_HILO && error.get() == null; k++) {
+                    // Mezcla de pasos cortos (recorridos secuenciales) y saltos
+                    index = aleatorio.nextInt(4) == 0 ? aleatorio.nextInt(n) : (index + 1) % n;
+                    Integer valor = lista.get(index);
+                    if (valor != index) {
+                        error.compareAndSet(null, "get(" + index + ") devolvió " + valor + " con lectores concurrentes");
+                    }
+                }
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        check(error.get() == null, String.valueOf(error.get()));
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
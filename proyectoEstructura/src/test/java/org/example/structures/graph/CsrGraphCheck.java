@@ -0,0 +1,161 @@
+package org.example.structures.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Comprobación aleatoria de las búsquedas de CsrGraph contra una BFS de referencia hecha sobre el Graph original:
+ * shortestPath y shortestPathBidirectional deben devolver caminos válidos de longitud mínima (o vacíos si no hay
+ * camino de como mucho maxDepth aristas), distancesFrom las mismas distancias (con uno y con varios orígenes)
+ * y las componentes conexas deben coincidir con la alcanzabilidad. Los grafos van de muy dispersos (muchas
+ * componentes) a densos.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class CsrGraphCheck {
+    private static final int RONDAS = 200;
+    private static final int CONSULTAS_POR_RONDA = 100;
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            int n = 1 + random.nextInt(80);
+            Graph<Integer> graph = new Graph<>();
+            for (int v = 0; v < n; v++) {
+                graph.addVertex(v);
+            }
+            int aristas = random.nextInt(2 * n + 1);
+            for (int e = 0; e < aristas; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n));
+            }
+            CsrGraph<Integer> csr = CsrGraph.of(graph);
+            check(csr.size() == n && csr.isCurrent(graph), "la instantánea no corresponde al grafo");
+
+            // Todo lo que sigue trabaja con los ids de la instantánea
+            int[][] distancias = new int[n][];
+            for (int id = 0; id < n; id++) {
+                distancias[id] = bfs(graph, csr, csr.vertex(id));
+                check(csr.degree(id) == graph.degree(csr.vertex(id)), "grado distinto del grafo original");
+            }
+            checkComponentes(csr, distancias);
+
+            for (int consulta = 0; consulta < CONSULTAS_POR_RONDA; consulta++) {
+                int source = random.nextInt(n);
+                int target = random.nextInt(n);
+                int maxDepth = random.nextInt(8);
+                int esperada = distancias[source][target];
+                boolean alcanzable = esperada >= 0 && esperada <= maxDepth;
+                checkCamino(csr, graph, csr.shortestPath(source, target, maxDepth), source, target, alcanzable ? esperada : -1, "shortestPath");
+                checkCamino(csr, graph, csr.shortestPathBidirectional(source, target, maxDepth), source, target, alcanzable ? esperada : -1, "shortestPathBidirectional");
+
+                int[] calculadas = csr.distancesFrom(source, maxDepth);
+                for (int v = 0; v < n; v++) {
+                    int d = distancias[source][v];
+                    check(calculadas[v] == (d >= 0 && d <= maxDepth ? d : -1), "distancesFrom distinta de la referencia");
+                }
+
+                // Varios orígenes (con repetidos): cada vértice, una vez y con la distancia al origen más cercano
+                int[] sources = new int[1 + random.nextInt(4)];
+                for (int i = 0; i < sources.length; i++) {
+                    sources[i] = random.nextInt(n);
+                }
+                int[] visitas = new int[n];
+                int[] multiple = new int[n];
+                Arrays.fill(multiple, -1);
+                int[] anterior = {0};
+                csr.distancesFrom(sources, maxDepth, (id, distance) -> {
+                    check(distance >= anterior[0], "distancesFrom no visita en orden de distancia");
+                    anterior[0] = distance;
+                    visitas[id]++;
+                    multiple[id] = distance;
+                });
+                for (int v = 0; v < n; v++) {
+                    int d = -1;
+                    for (int s : sources) {
+                        int ds = distancias[s][v];
+                        if (ds >= 0 && (d < 0 || ds < d)) {
+                            d = ds;
+                        }
+                    }
+                    check(multiple[v] == (d >= 0 && d <= maxDepth ? d : -1), "distancesFrom con varios orígenes distinta de la referencia");
+                    check(visitas[v] <= 1, "distancesFrom visita un vértice más de una vez");
+                }
+            }
+        }
+        System.out.println("Búsquedas en anchura de CsrGraph correctas (semilla " + semilla + ").");
+    }
+
+    // BFS sencilla sobre las listas de vecinos del Graph; devuelve las distancias indexadas por id de la instantánea
+    private static int[] bfs(Graph<Integer> graph, CsrGraph<Integer> csr, int origen) {
+        int[] distancias = new int[csr.size()];
+        Arrays.fill(distancias, -1);
+        distancias[csr.idOf(origen)] = 0;
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+        cola.add(origen);
+        while (!cola.isEmpty()) {
+            Integer u = cola.poll();
+            for (Integer v : graph.getNeighbors(u)) {
+                if (distancias[csr.idOf(v)] < 0) {
+                    distancias[csr.idOf(v)] = distancias[csr.idOf(u)] + 1;
+                    cola.add(v);
+                }
+            }
+        }
+        return distancias;
+    }
+
+    private static void checkComponentes(CsrGraph<Integer> csr, int[][] distancias) {
+        int n = csr.size();
+        int componentes = 0;
+        int total = 0;
+        for (int a = 0; a < n; a++) {
+            int alcanzables = 0;
+            for (int b = 0; b < n; b++) {
+                check(csr.isConnected(a, b) == (distancias[a][b] >= 0), "isConnected distinto de la alcanzabilidad");
+                if (distancias[a][b] >= 0) {
+                    alcanzables++;
+                }
+            }
+            check(csr.componentSize(a) == alcanzables, "componentSize distinto de la referencia");
+            // Cada componente se cuenta una vez, en su vértice de menor id
+            boolean primero = true;
+            for (int b = 0; b < a; b++) {
+                if (distancias[a][b] >= 0) {
+                    primero = false;
+                    break;
+                }
+            }
+            if (primero) {
+                componentes++;
+                total += alcanzables;
+            }
+        }
+        check(csr.componentCount() == componentes && total == n, "componentCount distinto de la referencia");
+        int suma = 0;
+        for (int tamano : csr.getComponentSizes()) {
+            suma += tamano;
+        }
+        check(csr.getComponentSizes().size() == componentes && suma == n, "getComponentSizes distinto de la referencia");
+    }
+
+    // esperada es la longitud mínima en aristas, o -1 si el camino debe venir vacío
+    private static void checkCamino(CsrGraph<Integer> csr, Graph<Integer> graph, int[] camino, int source, int target, int esperada, String metodo) {
+        if (esperada < 0) {
+            check(camino.length == 0, metodo + " debería devolver un camino vacío");
+            return;
+        }
+        check(camino.length == esperada + 1, metodo + " no devuelve un camino mínimo");
+        check(camino[0] == source && camino[camino.length - 1] == target, metodo + " no une source y target");
+        for (int i = 1; i < camino.length; i++) {
+            check(csr.hasEdge(camino[i - 1], camino[i]) && graph.hasEdge(csr.vertex(camino[i - 1]), csr.vertex(camino[i])),
+                    metodo + " devuelve un camino con una arista inexistente");
+        }
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.structures.invertedIndex;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Comprobación aleatoria de InvertedIndex contra un conjunto de parejas de referencia: operaciones mezcladas de add,
+ * removeLeft y removeRight (con elementos que vuelven a aparecer después de eliminarse), verificando después de
+ * cada una contains, que rightsOf y leftsOf están ordenadas y contienen exactamente los relacionados, y
+ * countCommonRights. También comprueba que la lista vacía compartida que se devuelve no admite cambios.
+ * Se ejecuta con main; termina con una excepción en cuanto algo no cuadra.
+ */
+public class InvertedIndexCheck {
+    private static final int RONDAS = 200;
+    private static final int OPERACIONES_POR_RONDA = 400;
+    private static final int IZQUIERDOS = 15;
+    private static final int DERECHOS = 20;
+
+    public static void main(String[] args) {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        Random random = new Random(semilla);
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            InvertedIndex<String, Integer> index = new InvertedIndex<>();
+            Set<String> referencia = new HashSet<>();
+            for (int op = 0; op < OPERACIONES_POR_RONDA; op++) {
+                String left = "u" + random.nextInt(IZQUIERDOS);
+                int right = random.nextInt(DERECHOS);
+                int tipo = random.nextInt(20);
+                if (tipo < 16) {
+                    check(index.add(left, right) == referencia.add(clave(left, right)), "add distinto de la referencia");
+                } else if (tipo < 18) {
+                    index.removeLeft(left);
+                    referencia.removeIf(p -> p.startsWith(left + "#"));
+                    check(index.leftId(left) < 0 && index.rightsOf(left).isEmpty(), "removeLeft debe olvidar el elemento");
+                } else {
+                    index.removeRight(right);
+                    referencia.removeIf(p -> p.endsWith("#" + right));
+                    check(index.rightId(right) < 0 && index.leftsOf(right).isEmpty(), "removeRight debe olvidar el elemento");
+                }
+                check(!index.add(null, right) && !index.add(left, null), "add con un nulo debe devolver false");
+                compare(index, referencia);
+            }
+        }
+
+        boolean rechazada = false;
+        try {
+            new InvertedIndex<String, Integer>().rightsOf("nadie").add(1);
+        } catch (UnsupportedOperationException e) {
+            rechazada = true;
+        }
+        check(rechazada, "la lista vacía compartida no debe admitir add");
+
+        System.out.println("Índice invertido correcto (semilla " + semilla + ").");
+    }
+
+    private static void compare(InvertedIndex<String, Integer> index, Set<String> referencia) {
+        for (int i = 0; i < IZQUIERDOS; i++) {
+            String left = "u" + i;
+            PostingList rights = index.rightsOf(left);
+            checkOrdenada(rights);
+            int relacionados = 0;
+            for (int right = 0; right < DERECHOS; right++) {
+                boolean esperado = referencia.contains(clave(left, right));
+                check(index.contains(left, right) == esperado, "contains distinto de la referencia");
+                if (esperado) {
+                    relacionados++;
+                    check(rights.contains(index.rightId(right)), "rightsOf no contiene un relacionado");
+                }
+            }
+            check(rights.size() == relacionados, "rightsOf no tiene exactamente los relacionados");
+
+            for (int j = 0; j < IZQUIERDOS; j++) {
+                String otro = "u" + j;
+                int comunes = 0;
+                for (int right = 0; right < DERECHOS; right++) {
+                    if (referencia.contains(clave(left, right)) && referencia.contains(clave(otro, right))) {
+                        comunes++;
+                    }
+                }
+                check(index.countCommonRights(left, otro) == comunes, "countCommonRights distinto de la referencia");
+            }
+        }
+        for (int right = 0; right < DERECHOS; right++) {
+            PostingList lefts = index.leftsOf(right);
+            checkOrdenada(lefts);
+            int relacionados = 0;
+            for (int k = 0; k < lefts.size(); k++) {
+                check(referencia.contains(clave(index.left(lefts.get(k)), right)), "leftsOf contiene un no relacionado");
+                relacionados++;
+            }
+            for (int i = 0; i < IZQUIERDOS; i++) {
+                if (referencia.contains(clave("u" + i, right))) {
+                    relacionados--;
+                }
+            }
+            check(relacionados == 0, "leftsOf no tiene exactamente los relacionados");
+        }
+    }
+
+    private static void checkOrdenada(PostingList lista) {
+        for (int k = 1; k < lista.size(); k++) {
+            check(lista.get(k - 1) < lista.get(k), "la PostingList no está ordenada o repite ids");
+        }
+    }
+
+    private static String clave(String left, int right) {
+        return left + "#" + right;
+    }
+
+    private static void check(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new IllegalStateException(mensaje);
+        }
+    }
+}